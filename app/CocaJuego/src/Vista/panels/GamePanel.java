@@ -40,6 +40,7 @@ public class GamePanel extends JPanel {
     private JLabel lblPuntosActual;
     private JLabel lblTiempo;
     private JLabel lblUltimaEmbocada;
+    private JLabel lblSugerencia;
 
     public GamePanel() {
         this.teamCards = new ArrayList<>();
@@ -169,6 +170,7 @@ public class GamePanel extends JPanel {
         lblCodigoActual   = createInfoLabel("Código: -");
         lblPuntosActual   = createInfoLabel("Puntos: 0");
         lblUltimaEmbocada = createInfoLabel("Última: -");
+        lblSugerencia     = createInfoLabel("Sugerencia: -");
 
         panel.add(titulo);
         panel.add(Box.createVerticalStrut(10));
@@ -183,6 +185,8 @@ public class GamePanel extends JPanel {
         panel.add(lblPuntosActual);
         panel.add(Box.createVerticalStrut(5));
         panel.add(lblUltimaEmbocada);
+        panel.add(Box.createVerticalStrut(5));
+        panel.add(lblSugerencia);
 
         return panel;
     }
@@ -265,6 +269,13 @@ public class GamePanel extends JPanel {
         lblUltimaEmbocada.setText("Última: " + ultimaEmbocada);
     }
 
+    /**
+     * Muestra la embocada que conviene intentar.
+     */
+    public void updateSuggestion(String sugerencia) {
+        lblSugerencia.setText("Sugerencia: " + sugerencia);
+    }
+
     public void updateStandings(Map<Team, TeamStats> stats) {
         standingsTable.update(stats);
     }
@@ -5,13 +5,16 @@ import javax.swing.*;
 
 /**
  * Panel de inicio de la aplicación.
- * Muestra el título del juego y las opciones de nuevo juego o cargar partida.
+ * Muestra el título del juego y las opciones de nuevo juego, cargar partida,
+ * cuántas partidas guardadas se conservan y exportar los ganadores.
  * Sin lógica ni listeners — solo componentes visuales.
  */
 public class HomePanel extends JPanel {
 
     private JButton btnNuevoJuego;
     private JButton btnCargar;
+    private JButton btnPartidasGuardadas;
+    private JButton btnExportarGanadores;
 
     public HomePanel() {
         setLayout(new BorderLayout());
@@ -61,10 +64,16 @@ public class HomePanel extends JPanel {
 
         btnNuevoJuego = createButton("Nuevo Juego", new Color(70, 130, 180));
         btnCargar     = createButton("Cargar Partida", new Color(60, 60, 60));
+        btnPartidasGuardadas = createButton("Partidas Guardadas", new Color(60, 60, 60));
+        btnExportarGanadores = createButton("Exportar Ganadores", new Color(60, 60, 60));
 
         buttonPanel.add(btnNuevoJuego);
         buttonPanel.add(Box.createVerticalStrut(15));
         buttonPanel.add(btnCargar);
+        buttonPanel.add(Box.createVerticalStrut(15));
+        buttonPanel.add(btnPartidasGuardadas);
+        buttonPanel.add(Box.createVerticalStrut(15));
+        buttonPanel.add(btnExportarGanadores);
 
         add(buttonPanel, BorderLayout.SOUTH);
     }
@@ -98,4 +107,18 @@ public class HomePanel extends JPanel {
     public JButton getBtnCargarUltimo() {
         return btnCargar;
     }
+
+    /**
+     * Retorna el botón de partidas guardadas para que VistaControl le agregue el listener.
+     */
+    public JButton getBtnPartidasGuardadas() {
+        return btnPartidasGuardadas;
+    }
+
+    /**
+     * Retorna el botón de exportar ganadores para que VistaControl le agregue el listener.
+     */
+    public JButton getBtnExportarGanadores() {
+        return btnExportarGanadores;
+    }
 }
\ No newline at end of file
@@ -10,17 +10,20 @@ import modelo.Team;
 /**
  * Panel del menú del torneo.
  * Permite registrar equipos nuevos, cargar equipos desde archivo
- * y configurar el tiempo antes de iniciar el juego.
+ * y configurar el tiempo (y, para repetir una partida, la semilla) antes
+ * de iniciar el juego.
  * Sin lógica ni listeners — solo componentes visuales.
  */
 public class MenuTPanel extends JPanel {
 
     private JButton btnRegistrarEquipo;
     private JButton btnCargarEquipo;
+    private JButton btnImportarEquipos;
     private JButton btnIniciarJuego;
     private JButton btnEliminarEquipo;
     private JButton btnVolver;
     private JSpinner spinnerTiempo;
+    private JTextField txtSemilla;
     private JList<String> listaEquipos;
     private DefaultListModel<String> listModel;
 
@@ -106,6 +109,14 @@ public class MenuTPanel extends JPanel {
         lblDescCargar.setFont(new Font("Arial", Font.ITALIC, 11));
         lblDescCargar.setAlignmentX(Component.CENTER_ALIGNMENT);
 
+        // Importar muchos equipos de una vez
+        btnImportarEquipos = createButton("Importar equipos en lote", new Color(80, 80, 80));
+
+        JLabel lblDescImportar = new JLabel("<html><center>Guarda todos los equipos de un archivo<br>o de una carpeta de archivos</center></html>");
+        lblDescImportar.setForeground(Color.GRAY);
+        lblDescImportar.setFont(new Font("Arial", Font.ITALIC, 11));
+        lblDescImportar.setAlignmentX(Component.CENTER_ALIGNMENT);
+
         panel.add(Box.createVerticalStrut(20));
         panel.add(lblRegistrar);
         panel.add(Box.createVerticalStrut(10));
@@ -120,6 +131,10 @@ public class MenuTPanel extends JPanel {
         panel.add(btnCargarEquipo);
         panel.add(Box.createVerticalStrut(8));
         panel.add(lblDescCargar);
+        panel.add(Box.createVerticalStrut(20));
+        panel.add(btnImportarEquipos);
+        panel.add(Box.createVerticalStrut(8));
+        panel.add(lblDescImportar);
         panel.add(Box.createVerticalGlue());
 
         return panel;
@@ -166,12 +181,22 @@ public class MenuTPanel extends JPanel {
         spinnerTiempo.setPreferredSize(new Dimension(80, 35));
         spinnerTiempo.setFont(new Font("Arial", Font.PLAIN, 13));
 
+        JLabel lblSemilla = new JLabel("Semilla (opcional):");
+        lblSemilla.setForeground(Color.LIGHT_GRAY);
+        lblSemilla.setFont(new Font("Arial", Font.PLAIN, 13));
+
+        txtSemilla = new JTextField(12);
+        txtSemilla.setFont(new Font("Arial", Font.PLAIN, 13));
+        txtSemilla.setToolTipText("Semilla de una partida anterior, para repetir sus intentos");
+
         btnIniciarJuego = createButton("Iniciar Juego", new Color(50, 150, 80));
         btnIniciarJuego.setEnabled(false);
         btnIniciarJuego.setPreferredSize(new Dimension(200, 45));
 
         bottomPanel.add(lblTiempo);
         bottomPanel.add(spinnerTiempo);
+        bottomPanel.add(lblSemilla);
+        bottomPanel.add(txtSemilla);
         bottomPanel.add(Box.createHorizontalStrut(20));
         bottomPanel.add(btnIniciarJuego);
 
@@ -250,10 +275,18 @@ public class MenuTPanel extends JPanel {
         return (int) spinnerTiempo.getValue();
     }
 
+    /**
+     * Retorna la semilla escrita, sin espacios; vacía si no se escribió.
+     */
+    public String getSemilla() {
+        return txtSemilla.getText().trim();
+    }
+
     // ─── GETTERS para VistaControl ────────────────────────────────────────────
 
     public JButton getBtnRegistrarEquipo() { return btnRegistrarEquipo; }
     public JButton getBtnCargarEquipo()    { return btnCargarEquipo;    }
+    public JButton getBtnImportarEquipos() { return btnImportarEquipos; }
     public JButton getBtnIniciarJuego()    { return btnIniciarJuego;    }
     public JButton getBtnEliminarEquipo()  { return btnEliminarEquipo;  }
     public JButton getBtnVolver()          { return btnVolver;          }
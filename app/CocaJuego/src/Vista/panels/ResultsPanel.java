@@ -4,6 +4,7 @@ import java.awt.*;
 import java.util.Map;
 import javax.swing.*;
 import javax.swing.border.TitledBorder;
+import modelo.Leaderboard;
 import modelo.Team;
 import modelo.TeamStats;
 
@@ -17,6 +18,8 @@ public class ResultsPanel extends JPanel {
     private JLabel lblGanador;
     private JLabel lblProyecto;
     private JLabel lblPuntaje;
+    private JPanel seedPanel;
+    private JTextField txtSemilla;
     private JLabel lblJugador1;
     private JLabel lblJugador2;
     private JLabel lblJugador3;
@@ -28,7 +31,13 @@ public class ResultsPanel extends JPanel {
     private javax.swing.table.DefaultTableModel tableModel;
     private JTable tabla;
 
+    // Tabla histórica
+    private javax.swing.table.DefaultTableModel historyModel;
+    private JLabel lblTopJugadores;
+
     private static final String[] COLUMNS = {"Pos", "Equipo", "Proyecto", "Puntos"};
+    private static final String[] HISTORY_COLUMNS = {"Pos", "Equipo", "Victorias", "Mejor", "Promedio"};
+    private static final int HISTORY_ROWS = 5;
 
     public ResultsPanel() {
         setLayout(new BorderLayout(15, 15));
@@ -55,8 +64,13 @@ public class ResultsPanel extends JPanel {
         JPanel centerPanel = new JPanel(new GridLayout(1, 2, 20, 0));
         centerPanel.setBackground(new Color(20, 20, 20));
 
+        JPanel tablesPanel = new JPanel(new GridLayout(2, 1, 0, 15));
+        tablesPanel.setBackground(new Color(20, 20, 20));
+        tablesPanel.add(buildFinalTablePanel());
+        tablesPanel.add(buildHistoryPanel());
+
         centerPanel.add(buildWinnerPanel());
-        centerPanel.add(buildFinalTablePanel());
+        centerPanel.add(tablesPanel);
 
         add(centerPanel, BorderLayout.CENTER);
     }
@@ -76,6 +90,22 @@ public class ResultsPanel extends JPanel {
         lblProyecto = createResultLabel("-", new Font("Arial", Font.ITALIC, 14), Color.LIGHT_GRAY);
         lblPuntaje = createResultLabel("Puntos: 0", new Font("Arial", Font.BOLD, 18), new Color(100, 200, 100));
 
+        // Semilla: solo lectura pero seleccionable, para copiarla en el menú del torneo
+        JLabel lblSemilla = new JLabel("Semilla:");
+        lblSemilla.setForeground(Color.LIGHT_GRAY);
+        lblSemilla.setFont(new Font("Arial", Font.PLAIN, 13));
+        txtSemilla = new JTextField(14);
+        txtSemilla.setFont(new Font("Arial", Font.PLAIN, 13));
+        txtSemilla.setEditable(false);
+        txtSemilla.setToolTipText("Semilla de la partida, para repetir sus intentos");
+        seedPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, 6, 0));
+        seedPanel.setOpaque(false);
+        seedPanel.add(lblSemilla);
+        seedPanel.add(txtSemilla);
+        seedPanel.setMaximumSize(seedPanel.getPreferredSize());
+        seedPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
+        seedPanel.setVisible(false);
+
         // Separador
         JSeparator sep = new JSeparator();
         sep.setForeground(Color.DARK_GRAY);
@@ -103,6 +133,8 @@ public class ResultsPanel extends JPanel {
         panel.add(lblProyecto);
         panel.add(Box.createVerticalStrut(8));
         panel.add(lblPuntaje);
+        panel.add(Box.createVerticalStrut(6));
+        panel.add(seedPanel);
         panel.add(Box.createVerticalStrut(15));
         panel.add(sep);
         panel.add(Box.createVerticalStrut(15));
@@ -127,39 +159,26 @@ public class ResultsPanel extends JPanel {
         panel.setBackground(new Color(35, 35, 35));
         panel.setBorder(createTitledBorder("Tabla Final de Posiciones"));
 
-        tableModel = new javax.swing.table.DefaultTableModel(COLUMNS, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        tableModel = createTableModel(COLUMNS);
+        tabla = createTable(tableModel);
 
-        tabla = new JTable(tableModel);
-        tabla.setBackground(new Color(30, 30, 30));
-        tabla.setForeground(Color.WHITE);
-        tabla.setFont(new Font("Arial", Font.PLAIN, 13));
-        tabla.setRowHeight(32);
-        tabla.getTableHeader().setBackground(new Color(60, 60, 60));
-        tabla.getTableHeader().setForeground(Color.WHITE);
-        tabla.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
-        tabla.setSelectionBackground(new Color(70, 130, 180));
+        panel.add(createScroll(tabla), BorderLayout.CENTER);
+        return panel;
+    }
 
-        // Centrar columnas numéricas
-        javax.swing.table.DefaultTableCellRenderer centerRenderer = new javax.swing.table.DefaultTableCellRenderer();
-        centerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
-        for (int i = 0; i < COLUMNS.length; i++) {
-            tabla.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
-        }
+    private JPanel buildHistoryPanel() {
+        JPanel panel = new JPanel(new BorderLayout(0, 8));
+        panel.setBackground(new Color(35, 35, 35));
+        panel.setBorder(createTitledBorder("Campeones Históricos"));
 
-        // Ancho columna posición
-        tabla.getColumnModel().getColumn(0).setPreferredWidth(40);
+        historyModel = createTableModel(HISTORY_COLUMNS);
+        JTable historyTable = createTable(historyModel);
+        historyTable.setRowSelectionAllowed(false);
 
-        JScrollPane scroll = new JScrollPane(tabla);
-        scroll.setOpaque(false);
-        scroll.getViewport().setOpaque(false);
-        scroll.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
+        lblTopJugadores = createResultLabel(" ", new Font("Arial", Font.ITALIC, 12), new Color(150, 150, 255));
 
-        panel.add(scroll, BorderLayout.CENTER);
+        panel.add(createScroll(historyTable), BorderLayout.CENTER);
+        panel.add(lblTopJugadores, BorderLayout.SOUTH);
         return panel;
     }
 
@@ -180,6 +199,46 @@ public class ResultsPanel extends JPanel {
 
     // ─── HELPERS ─────────────────────────────────────────────────────────────
 
+    private javax.swing.table.DefaultTableModel createTableModel(String[] columns) {
+        return new javax.swing.table.DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+    }
+
+    private JTable createTable(javax.swing.table.DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setBackground(new Color(30, 30, 30));
+        table.setForeground(Color.WHITE);
+        table.setFont(new Font("Arial", Font.PLAIN, 13));
+        table.setRowHeight(32);
+        table.getTableHeader().setBackground(new Color(60, 60, 60));
+        table.getTableHeader().setForeground(Color.WHITE);
+        table.getTableHeader().setFont(new Font("Arial", Font.BOLD, 12));
+        table.setSelectionBackground(new Color(70, 130, 180));
+
+        // Centrar columnas numéricas
+        javax.swing.table.DefaultTableCellRenderer centerRenderer = new javax.swing.table.DefaultTableCellRenderer();
+        centerRenderer.setHorizontalAlignment(SwingConstants.CENTER);
+        for (int i = 0; i < model.getColumnCount(); i++) {
+            table.getColumnModel().getColumn(i).setCellRenderer(centerRenderer);
+        }
+
+        // Ancho columna posición
+        table.getColumnModel().getColumn(0).setPreferredWidth(40);
+        return table;
+    }
+
+    private JScrollPane createScroll(JTable table) {
+        JScrollPane scroll = new JScrollPane(table);
+        scroll.setOpaque(false);
+        scroll.getViewport().setOpaque(false);
+        scroll.setBorder(BorderFactory.createLineBorder(Color.DARK_GRAY));
+        return scroll;
+    }
+
     private JLabel createResultLabel(String text, Font font, Color color) {
         JLabel label = new JLabel(text, SwingConstants.CENTER);
         label.setFont(font);
@@ -214,13 +273,13 @@ public class ResultsPanel extends JPanel {
     // ─── MÉTODOS DE ACTUALIZACIÓN (llamados por VistaControl) ────────────────
 
     /**
-     * Muestra el equipo ganador y sus datos.
+     * Muestra el equipo ganador y sus datos. Las victorias históricas se
+     * completan con {@link #showWins(int)} cuando terminan de guardarse.
      *
      * @param team equipo ganador
      * @param stats estadísticas del ganador
-     * @param victorias cantidad de veces que ha ganado en el historial
      */
-    public void showWinner(Team team, TeamStats stats, int victorias) {
+    public void showWinner(Team team, TeamStats stats) {
         lblGanador.setText(team.getName());
         lblProyecto.setText(team.getProyect());
         lblPuntaje.setText("Puntos: " + stats.getPoints());
@@ -230,6 +289,27 @@ public class ResultsPanel extends JPanel {
         lblJugador2.setText(players.size() > 1 ? "👤 " + players.get(1).getName() : "-");
         lblJugador3.setText(players.size() > 2 ? "👤 " + players.get(2).getName() : "-");
 
+        lblHistorial.setText("Consultando historial...");
+    }
+
+    /**
+     * Muestra la semilla de la partida junto al puntaje, en un campo que se
+     * puede seleccionar y copiar para repetirla si se disputa el resultado.
+     *
+     * @param seed semilla de los intentos, o null si la partida no se puede repetir
+     */
+    public void showSeed(Long seed) {
+        txtSemilla.setText(seed != null ? Long.toString(seed) : "");
+        txtSemilla.setCaretPosition(0);
+        seedPanel.setVisible(seed != null);
+    }
+
+    /**
+     * Muestra cuántas veces ha ganado el equipo en el historial.
+     *
+     * @param victorias cantidad de veces que ha ganado en el historial
+     */
+    public void showWins(int victorias) {
         if (victorias > 1) {
             lblHistorial.setText("¡Este equipo ha ganado " + victorias + " veces!");
         } else {
@@ -271,6 +351,47 @@ public class ResultsPanel extends JPanel {
         }
     }
 
+    /**
+     * Vacía la tabla histórica mientras se calcula.
+     */
+    public void showLeaderboardLoading() {
+        historyModel.setRowCount(0);
+        lblTopJugadores.setText("Cargando historial...");
+    }
+
+    /**
+     * Carga la tabla histórica de campeones y los jugadores con más victorias.
+     *
+     * @param leaderboard tabla histórica, o null si no está disponible
+     */
+    public void showLeaderboard(Leaderboard leaderboard) {
+        historyModel.setRowCount(0);
+        if (leaderboard == null) {
+            lblTopJugadores.setText("Historial no disponible");
+            return;
+        }
+
+        int pos = 1;
+        for (Leaderboard.TeamEntry entry : leaderboard.topByWins(HISTORY_ROWS)) {
+            historyModel.addRow(new Object[]{
+                pos++,
+                entry.getName(),
+                entry.getWins(),
+                entry.getBestScore(),
+                String.format("%.1f", entry.getAverageScore())
+            });
+        }
+
+        StringBuilder jugadores = new StringBuilder();
+        for (Leaderboard.PlayerEntry player : leaderboard.topPlayers(3)) {
+            if (jugadores.length() > 0) jugadores.append("  ·  ");
+            jugadores.append(player.getName()).append(" (").append(player.getWins()).append(")");
+        }
+        lblTopJugadores.setText(jugadores.length() > 0
+            ? "Jugadores más ganadores: " + jugadores
+            : " ");
+    }
+
     // ─── GETTERS para VistaControl ────────────────────────────────────────────
 
     public JButton getBtnNuevoTorneo() { return btnNuevoTorneo; }
@@ -0,0 +1,91 @@
+package benchmark;
+
+import control.Attemp;
+import control.RandomSource;
+import modelo.Embocada;
+import modelo.TeamStats;
+
+/**
+ * Compara {@link Attemp#execute(Embocada)}, un intento por llamada, contra
+ * las variantes por lote que llenan un arreglo o suman en {@link TeamStats}.
+ *
+ * <p>Uso: {@code java benchmark.AttemptBenchmark [intentos] [rondas]}
+ * (por defecto 10000000 intentos y 10 rondas), con cada fuente de azar. Las
+ * primeras rondas se descartan como calentamiento y se informa la mediana
+ * del resto, junto con los bytes reservados por ronda cuando la JVM permite
+ * medirlos.</p>
+ */
+public class AttemptBenchmark {
+
+    private static final int LOTE = 4096;
+
+    /** Forma de hacer {@code n} intentos; retorna un valor para que no se descarte el trabajo. */
+    private interface Runner {
+        long run(Attemp attemp, int n);
+    }
+
+    public static void main(String[] args) {
+        int intentos = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        System.out.printf("%d intentos de %s, %d rondas medidas%n", intentos, Embocada.SIMPLE, rondas);
+        System.out.printf("%-12s %-10s %10s %14s %12s%n", "fuente", "forma", "ns/intento", "intentos/s", "bytes");
+
+        String[] fuentes = {"seeded", "splittable", "threadLocal"};
+        for (String fuente : fuentes) {
+            run(fuente, "uno a uno", intentos, rondas, AttemptBenchmark::single);
+            run(fuente, "arreglo", intentos, rondas, AttemptBenchmark::batch);
+            run(fuente, "TeamStats", intentos, rondas, AttemptBenchmark::fold);
+        }
+    }
+
+    private static void run(String fuente, String forma, int intentos, int rondas, Runner runner) {
+        Harness.Result result = Harness.measure(rondas, laps -> {
+            Attemp attemp = new Attemp(source(fuente));
+            laps.start(); // sin contar la creación del intento
+            return runner.run(attemp, intentos);
+        });
+        double ns = result.median(0) / intentos;
+        double reservados = result.medianAllocated();
+        System.out.printf("%-12s %-10s %10.2f %14.0f %12s   (control %d)%n",
+                fuente, forma, ns, 1e9 / ns,
+                reservados < 0 ? "n/d" : String.format("%.0f", reservados), result.control());
+    }
+
+    private static long single(Attemp attemp, int n) {
+        long puntos = 0;
+        for (int i = 0; i < n; i++) {
+            puntos += attemp.execute(Embocada.SIMPLE);
+        }
+        return puntos;
+    }
+
+    // Un solo arreglo para todas las rondas, así el lote no reserva memoria
+    private static final int[] OUT = new int[LOTE];
+
+    private static long batch(Attemp attemp, int n) {
+        long puntos = 0;
+        for (int hechos = 0; hechos < n; hechos += LOTE) {
+            int cantidad = Math.min(LOTE, n - hechos);
+            attemp.execute(Embocada.SIMPLE, cantidad, OUT);
+            for (int i = 0; i < cantidad; i++) {
+                puntos += OUT[i];
+            }
+        }
+        return puntos;
+    }
+
+    private static long fold(Attemp attemp, int n) {
+        TeamStats stats = new TeamStats();
+        attemp.execute(Embocada.SIMPLE, n, stats);
+        return stats.getPoints();
+    }
+
+    private static RandomSource source(String fuente) {
+        switch (fuente) {
+            case "seeded":     return RandomSource.seeded(1);
+            case "splittable": return RandomSource.splittable();
+            default:           return RandomSource.threadLocal();
+        }
+    }
+}
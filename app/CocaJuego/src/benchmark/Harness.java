@@ -0,0 +1,172 @@
+package benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Arrays;
+
+/**
+ * Rondas de medición comunes a los benchmarks: las primeras se descartan
+ * como calentamiento y de las demás se informa la mediana del tiempo de
+ * cada fase y de los bytes reservados.
+ *
+ * <p>Cada benchmark pone solo su trabajo, como un {@link Workload}. Si una
+ * ronda tiene varias partes que se miden por separado (por ejemplo guardar
+ * y cargar), el trabajo marca el fin de cada una con {@link Laps#lap()}; la
+ * última termina sola al volver.</p>
+ */
+final class Harness {
+
+    /** Rondas de calentamiento por defecto. */
+    static final int WARMUP = 3;
+
+    // Se obtiene una sola vez: pedirlo en cada medición reserva memoria
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private Harness() {
+    }
+
+    /** Trabajo de una ronda. */
+    interface Workload<E extends Exception> {
+        /**
+         * @param laps marcas de la ronda
+         * @return valor derivado del trabajo, para que no se descarte
+         */
+        long run(Laps laps) throws E;
+    }
+
+    /** Marcas de tiempo de una ronda en curso. */
+    static final class Laps {
+        private final long[] marcas;
+        private int fase;
+        private long bytesInicio;
+        private boolean warmup;
+
+        private Laps(int fases) {
+            this.marcas = new long[fases + 1];
+        }
+
+        /**
+         * Vuelve a empezar a medir la ronda, para no contar lo que el trabajo
+         * prepara antes de esta llamada.
+         */
+        void start() {
+            fase = 0;
+            bytesInicio = allocatedBytes();
+            marcas[0] = System.nanoTime();
+        }
+
+        /** Termina la fase actual y empieza la siguiente. */
+        void lap() {
+            marcas[++fase] = System.nanoTime();
+        }
+
+        /**
+         * @return true si la ronda es de calentamiento y no se va a informar
+         */
+        boolean isWarmup() {
+            return warmup;
+        }
+    }
+
+    /** Medianas de las rondas medidas. */
+    static final class Result {
+        private final long[][] fases;
+        private final long[] reservados;
+        private final long control;
+
+        private Result(long[][] fases, long[] reservados, long control) {
+            this.fases = fases;
+            this.reservados = reservados;
+            this.control = control;
+        }
+
+        /**
+         * @param fase número de la fase, desde 0
+         * @return mediana del tiempo de la fase, en nanosegundos
+         */
+        double median(int fase) {
+            return Harness.median(fases[fase]);
+        }
+
+        /**
+         * @return mediana de los bytes reservados por ronda, o -1 si la JVM no permite medirlos
+         */
+        double medianAllocated() {
+            return reservados.length == 0 || reservados[0] < 0 ? -1 : Harness.median(reservados);
+        }
+
+        /**
+         * @return suma de los valores retornados por el trabajo en todas las rondas
+         */
+        long control() {
+            return control;
+        }
+    }
+
+    /**
+     * Mide un trabajo de una sola fase con el calentamiento por defecto.
+     *
+     * @param rondas rondas medidas
+     * @param workload trabajo de cada ronda
+     * @return medianas de las rondas medidas
+     */
+    static <E extends Exception> Result measure(int rondas, Workload<E> workload) throws E {
+        return measure(WARMUP, rondas, 1, workload);
+    }
+
+    /**
+     * Mide un trabajo.
+     *
+     * @param warmup rondas de calentamiento
+     * @param rondas rondas medidas
+     * @param fases fases de cada ronda; el trabajo llama a {@link Laps#lap()} una vez menos
+     * @param workload trabajo de cada ronda
+     * @return medianas de las rondas medidas
+     */
+    static <E extends Exception> Result measure(int warmup, int rondas, int fases,
+                                                Workload<E> workload) throws E {
+        long[][] tiempos = new long[fases][rondas];
+        long[] reservados = new long[rondas];
+        long control = 0;
+        Laps laps = new Laps(fases);
+        for (int r = -warmup; r < rondas; r++) {
+            laps.warmup = r < 0;
+            laps.start();
+            control += workload.run(laps);
+            laps.lap();
+            long bytesFin = allocatedBytes();
+            if (laps.fase != fases) {
+                throw new IllegalStateException("Se esperaban " + fases + " fases y hubo " + laps.fase);
+            }
+            if (r >= 0) {
+                for (int f = 0; f < fases; f++) {
+                    tiempos[f][r] = laps.marcas[f + 1] - laps.marcas[f];
+                }
+                reservados[r] = laps.bytesInicio < 0 ? -1 : bytesFin - laps.bytesInicio;
+            }
+        }
+        return new Result(tiempos, reservados, control);
+    }
+
+    /**
+     * @param valores valores medidos
+     * @return mediana; promedio de los dos del medio si la cantidad es par
+     */
+    static double median(long[] valores) {
+        long[] copia = valores.clone();
+        Arrays.sort(copia);
+        int m = copia.length / 2;
+        return copia.length % 2 == 1 ? copia[m] : (copia[m - 1] + copia[m]) / 2.0;
+    }
+
+    /** Bytes reservados por el hilo actual, o -1 si la JVM no lo permite. */
+    static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean sun = (com.sun.management.ThreadMXBean) THREADS;
+            if (sun.isThreadAllocatedMemorySupported() && sun.isThreadAllocatedMemoryEnabled()) {
+                return sun.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,71 @@
+package benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import modelo.Player;
+import modelo.Team;
+import persistence.Serialization;
+import persistence.SerializationBackend;
+
+/**
+ * Compara el tamaño y la velocidad de guardado y carga de la lista de
+ * equipos con cada {@link SerializationBackend}.
+ *
+ * <p>Uso: {@code java benchmark.SerializationBenchmark [equipos] [rondas]}
+ * (por defecto 20000 equipos y 10 rondas). Las primeras rondas de cada
+ * formato se descartan como calentamiento y se informa la mediana del resto.</p>
+ */
+public class SerializationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int equipos = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        List<Team> teams = generateTeams(equipos);
+        Path dir = Files.createTempDirectory("cocajuego-bench");
+        System.out.printf("%d equipos, %d rondas medidas%n", equipos, rondas);
+        System.out.printf("%-8s %12s %12s %12s %14s %14s%n",
+                "formato", "bytes", "guardar ms", "cargar ms", "guardar eq/s", "cargar eq/s");
+
+        for (SerializationBackend backend : SerializationBackend.values()) {
+            Path file = dir.resolve("equipos-" + backend + ".ser");
+            Serialization serialization = new Serialization(backend, file);
+
+            Harness.Result result = Harness.measure(Harness.WARMUP, rondas, 2, laps -> {
+                if (!serialization.save(teams)) {
+                    throw new IOException("No se pudo guardar con " + backend);
+                }
+                laps.lap();
+                List<Team> leidos = serialization.load();
+                if (leidos.size() != teams.size()) {
+                    throw new IOException("Se cargaron " + leidos.size() + " equipos con " + backend);
+                }
+                return leidos.size();
+            });
+
+            double guardarMs = result.median(0) / 1e6;
+            double cargarMs = result.median(1) / 1e6;
+            System.out.printf("%-8s %12d %12.2f %12.2f %14.0f %14.0f%n",
+                    backend, Files.size(file), guardarMs, cargarMs,
+                    equipos / (guardarMs / 1000), equipos / (cargarMs / 1000));
+            Files.delete(file);
+        }
+        Files.delete(dir);
+    }
+
+    private static List<Team> generateTeams(int cantidad) {
+        List<Team> teams = new ArrayList<>(cantidad);
+        for (int t = 0; t < cantidad; t++) {
+            List<Player> players = new ArrayList<>();
+            for (int p = 0; p < 3; p++) {
+                players.add(new Player("Jugador " + t + "-" + p, t * 3 + p));
+            }
+            teams.add(new Team("Proyecto " + (t % 20), "Equipo " + t, players, 1000 + t % 9000));
+        }
+        return teams;
+    }
+}
@@ -0,0 +1,64 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+import control.RandomSource;
+import control.SimulationResult;
+import control.TournamentSimulator;
+import modelo.Embocada;
+
+/**
+ * Simula muchas partidas con {@link TournamentSimulator}, mide cuántas por
+ * minuto se alcanzan y muestra la probabilidad de ganar de cada estrategia.
+ *
+ * <p>Uso: {@code java benchmark.SimulationBenchmark [partidas] [tiempoPorJugador] [segundosPorIntento] [semilla] [rondas]}
+ * (por defecto 2000000 partidas, 90 segundos, 3 segundos por tiro, semilla
+ * 1 y una ronda). Juegan siete equipos de 3 jugadores, cada uno siempre con
+ * una embocada distinta, que es lo que interesa comparar al ajustar los
+ * puntos y probabilidades. Antes de medir se hace una simulación corta de
+ * calentamiento; todas las rondas medidas usan la misma semilla y se informa
+ * la mediana de su tiempo.</p>
+ */
+public class SimulationBenchmark {
+
+    // Partidas de la ronda de calentamiento
+    private static final long WARMUP_MATCHES = 200_000;
+
+    public static void main(String[] args) {
+        long partidas = args.length > 0 ? Long.parseLong(args[0]) : 2_000_000;
+        int tiempoPorJugador = args.length > 1 ? Integer.parseInt(args[1]) : 90;
+        int segundosPorIntento = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        long semilla = args.length > 3 ? Long.parseLong(args[3]) : 1;
+        int rondas = args.length > 4 ? Integer.parseInt(args[4]) : 1;
+
+        List<Map<Embocada, Integer>> estrategias = new ArrayList<>();
+        List<String> nombres = new ArrayList<>();
+        for (Embocada embocada : Embocada.values()) {
+            estrategias.add(TournamentSimulator.always(embocada));
+            nombres.add("siempre " + embocada.name());
+        }
+        int tiros = TournamentSimulator.throwsPerPlayer(tiempoPorJugador, segundosPorIntento);
+        TournamentSimulator simulator = new TournamentSimulator(estrategias, 3, tiros);
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+
+        System.out.printf("%d equipos, %d tiros por jugador, %d hilos%n",
+                estrategias.size(), tiros, pool.getParallelism());
+
+        SimulationResult[] result = new SimulationResult[1];
+        Harness.Result medicion = Harness.measure(1, rondas, 1, laps -> {
+            if (laps.isWarmup()) {
+                return simulator.run(WARMUP_MATCHES, RandomSource.seeded(semilla + 1), pool).getMatches();
+            }
+            result[0] = simulator.run(partidas, RandomSource.seeded(semilla), pool);
+            return result[0].getMatches();
+        });
+        double segundos = medicion.median(0) / 1e9;
+
+        System.out.printf("%.2f s, %.1f millones de partidas por minuto%n%n",
+                segundos, partidas / segundos * 60 / 1e6);
+        System.out.print(result[0].report(nombres));
+    }
+}
@@ -0,0 +1,51 @@
+package benchmark;
+
+import control.StrategyEngine;
+import modelo.Embocada;
+
+/**
+ * Mide cuánto tarda {@link StrategyEngine} en armar su tabla y en responder
+ * una sugerencia.
+ *
+ * <p>Uso: {@code java benchmark.StrategyBenchmark [rondas]} (por defecto 10).
+ * Se arma la tabla para varios tiempos por jugador, con equipos de 3
+ * jugadores y {@value #SEGUNDOS_POR_INTENTO} segundos por tiro.
+ * Las primeras rondas se descartan como calentamiento y se informa la
+ * mediana del resto.</p>
+ */
+public class StrategyBenchmark {
+
+    private static final int CONSULTAS = 1_000_000;
+    private static final int SEGUNDOS_POR_INTENTO = 3;
+
+    public static void main(String[] args) {
+        int rondas = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int[] tiempos = {30, 60, 90, 180, 300};
+
+        System.out.printf("%d rondas medidas%n", rondas);
+        System.out.printf("%-12s %8s %12s %14s %14s%n",
+                "s/jugador", "tiros", "posiciones", "armar ms", "consulta ns");
+
+        for (int tiempo : tiempos) {
+            int tiros = StrategyEngine.throwsLeft(0, 3, tiempo, SEGUNDOS_POR_INTENTO);
+            Harness.Result result = Harness.measure(Harness.WARMUP, rondas, 2, laps -> {
+                StrategyEngine engine = new StrategyEngine(tiros);
+                laps.lap();
+                // Consultas variadas para que no queden todas en la misma línea de caché
+                long control = 0;
+                int t = 0;
+                int faltan = 1;
+                for (int i = 0; i < CONSULTAS; i++) {
+                    Embocada e = engine.suggest(t, faltan);
+                    control += e.ordinal();
+                    t = t == tiros ? 0 : t + 1;
+                    faltan = faltan >= 10 * tiros ? 1 : faltan + 7;
+                }
+                return control;
+            });
+            System.out.printf("%-12d %8d %12d %14.2f %14.1f   (control %d)%n",
+                    tiempo, tiros, (long) (tiros + 1) * (10 * tiros + 1),
+                    result.median(0) / 1e6, result.median(1) / CONSULTAS, result.control());
+        }
+    }
+}
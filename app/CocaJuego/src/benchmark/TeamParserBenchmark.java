@@ -0,0 +1,103 @@
+package benchmark;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import modelo.Player;
+import modelo.Team;
+import persistence.TeamPropertiesParser;
+
+/**
+ * Compara la lectura de archivos de equipo con {@link Properties}, como se
+ * hacía en {@code SavedTeams.loadTeam}, contra {@link TeamPropertiesParser}.
+ *
+ * <p>Uso: {@code java benchmark.TeamParserBenchmark [equipos] [rondas]}
+ * (por defecto 20000 equipos y 10 rondas). Los archivos se generan en memoria
+ * con {@link Properties#store}, igual que los guarda la aplicación, para medir
+ * solo la lectura y no el disco. Las primeras rondas se descartan como
+ * calentamiento y se informa la mediana del resto, junto con los bytes
+ * reservados por equipo cuando la JVM permite medirlos.</p>
+ */
+public class TeamParserBenchmark {
+
+    /** Forma de leer un archivo de equipo. */
+    private interface Reader {
+        Team read(InputStream in) throws IOException;
+    }
+
+    public static void main(String[] args) throws IOException {
+        int equipos = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int rondas = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        byte[][] archivos = generateFiles(equipos);
+        long total = 0;
+        for (byte[] archivo : archivos) {
+            total += archivo.length;
+        }
+        System.out.printf("%d equipos, %d bytes, %d rondas medidas%n", equipos, total, rondas);
+        System.out.printf("%-12s %12s %14s %16s%n", "lector", "ms", "equipos/s", "bytes/equipo");
+
+        TeamPropertiesParser parser = new TeamPropertiesParser();
+        run("Properties", archivos, rondas, TeamParserBenchmark::readWithProperties);
+        run("streaming", archivos, rondas, in -> parser.parse(in, "benchmark"));
+    }
+
+    private static void run(String nombre, byte[][] archivos, int rondas, Reader reader) throws IOException {
+        Harness.Result result = Harness.measure(rondas, laps -> {
+            long control = 0;
+            for (byte[] archivo : archivos) {
+                Team team = reader.read(new ByteArrayInputStream(archivo));
+                control += team.getPin() + team.getCantPlayers();
+            }
+            return control;
+        });
+        double ms = result.median(0) / 1e6;
+        double reservados = result.medianAllocated();
+        System.out.printf("%-12s %12.2f %14.0f %16s   (control %d)%n",
+                nombre, ms, archivos.length / (ms / 1000),
+                reservados < 0 ? "n/d" : String.format("%.0f", reservados / archivos.length),
+                result.control());
+    }
+
+    /** Lectura con Properties, como la hacía SavedTeams antes del lector propio. */
+    private static Team readWithProperties(InputStream in) throws IOException {
+        Properties properties = new Properties();
+        properties.load(in);
+        String proyect = properties.getProperty("proyect");
+        String name = properties.getProperty("name");
+        int pin = Integer.parseInt(properties.getProperty("pin"));
+        int cantPlayers = Integer.parseInt(properties.getProperty("players.count"));
+        List<Player> players = new ArrayList<>();
+        for (int i = 0; i < cantPlayers; i++) {
+            String playerName = properties.getProperty("player" + (i + 1) + ".name");
+            int playerCode = Integer.parseInt(properties.getProperty("player" + (i + 1) + ".code"));
+            players.add(new Player(playerName, playerCode));
+        }
+        return new Team(proyect, name, players, pin);
+    }
+
+    private static byte[][] generateFiles(int cantidad) throws IOException {
+        byte[][] archivos = new byte[cantidad][];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int t = 0; t < cantidad; t++) {
+            Properties properties = new Properties();
+            properties.setProperty("proyect", "Ingeniería de Sistemas " + (t % 20));
+            properties.setProperty("name", "Equipo Número " + t);
+            properties.setProperty("pin", Integer.toString(1000 + t % 9000));
+            properties.setProperty("players.count", "3");
+            for (int p = 0; p < 3; p++) {
+                properties.setProperty("player" + (p + 1) + ".name", "Jugador Ñandú " + t + "-" + p);
+                properties.setProperty("player" + (p + 1) + ".code", Integer.toString(20230000 + t * 3 + p));
+            }
+            out.reset();
+            properties.store(out, null);
+            archivos[t] = out.toByteArray();
+        }
+        return archivos;
+    }
+}
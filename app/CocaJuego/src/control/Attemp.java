@@ -1,49 +1,93 @@
 package control;
-import java.util.Random;
 
 import modelo.Embocada;
+import modelo.TeamStats;
 
+/**
+ * Resuelve los intentos de embocada con una fuente de azar.
+ *
+ * <p>No guarda estado entre intentos: se puede compartir entre hilos si su
+ * {@link RandomSource} se puede compartir.</p>
+ */
 public class Attemp {
 
-    private Embocada embocada;
-    private Random random;
-    private int points = 0;
+    private final RandomSource random;
 
     public Attemp() {
+        this(RandomSource.threadLocal());
     }
 
+    /**
+     * @param random fuente de azar; con {@link SeededRandomSource} la sucesión
+     *               de intentos se puede repetir
+     */
+    public Attemp(RandomSource random) {
+        this.random = random;
+    }
+
+    /**
+     * Intenta una embocada.
+     *
+     * @param embocada embocada elegida
+     * @return puntos obtenidos, 0 si falló
+     */
     public int execute(Embocada embocada) {
-        
-        if (embocada == Embocada.SIMPLE) {
-            this.embocada = Embocada.SIMPLE;
-            
-        }else if (embocada == Embocada.DOBLE) {
-            this.embocada = Embocada.DOBLE;
-           
-        }else if (embocada == Embocada.VERTICAL) {
-            this.embocada = Embocada.VERTICAL;
-
-        } else if (embocada == Embocada.MARIQUITA) {
-            this.embocada = Embocada.MARIQUITA;
-            
-        } else if (embocada == Embocada.PUÑALADA) {
-            this.embocada = Embocada.PUÑALADA;
-            
-        } else if (embocada == Embocada.PURTIÑA) {
-            this.embocada = Embocada.PURTIÑA;
-
-        } else if (embocada == Embocada.DOMINIO) {
-            this.embocada = Embocada.DOMINIO;
-            
+        int chance = random.nextInt(100) + 1; // Genera un número entre 1 y 100
+        return chance <= embocada.getProbability() ? embocada.getPoints() : 0;
+    }
+
+    /**
+     * Intenta varias veces la misma embocada y deja los puntos de cada
+     * intento en {@code out}, sin reservar memoria. Usa la fuente de azar
+     * igual que {@link #execute(Embocada)} llamado {@code n} veces.
+     *
+     * @param embocada embocada elegida
+     * @param n cantidad de intentos
+     * @param out arreglo donde se escriben los puntos, desde la posición 0
+     */
+    public void execute(Embocada embocada, int n, int[] out) {
+        if (n > out.length) {
+            throw new IllegalArgumentException("El arreglo tiene " + out.length + " posiciones y se pidieron " + n);
+        }
+        int probability = embocada.getProbability();
+        int points = embocada.getPoints();
+        for (int i = 0; i < n; i++) {
+            out[i] = random.nextInt(100) < probability ? points : 0;
+        }
+    }
+
+    /**
+     * Intenta varias veces la misma embocada y suma los resultados a las
+     * estadísticas, sin guardar cada intento.
+     *
+     * @param embocada embocada elegida
+     * @param n cantidad de intentos
+     * @param stats estadísticas donde se suman puntos, intentos y embocadas
+     * @return embocadas acertadas
+     */
+    public int execute(Embocada embocada, int n, TeamStats stats) {
+        int probability = embocada.getProbability();
+        int aciertos = 0;
+        for (int i = 0; i < n; i++) {
+            aciertos += random.nextInt(100) < probability ? 1 : 0;
         }
-        random = new Random();
-        int chance = random.nextInt(100) + 1; // Genera un número
-        if (chance <= embocada.getProbability()) {
-            points = embocada.getPoints();
-        } else {
-            points = 0;
+        stats.add(aciertos * embocada.getPoints(), n, aciertos);
+        return aciertos;
+    }
+
+    /**
+     * Descarta los números que usarían {@code n} intentos, para seguir una
+     * sucesión con semilla desde donde quedó.
+     *
+     * @param n intentos ya hechos
+     */
+    public void skip(long n) {
+        for (long i = 0; i < n; i++) {
+            random.nextInt(100);
         }
-        return points;
-    } 
+    }
 
+    public RandomSource getRandom() {
+        return random;
+    }
 }
@@ -0,0 +1,256 @@
+package control;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import modelo.Player;
+import modelo.PlayerCodeIndex;
+import modelo.Team;
+
+/**
+ * Inscripción de equipos al torneo, segura para usar desde varios puestos
+ * de inscripción a la vez.
+ *
+ * <p>El nombre del equipo se reserva en un mapa concurrente con
+ * {@code putIfAbsent}. Los códigos de los jugadores están en un
+ * {@link PlayerCodeIndex} que no se modifica después de publicado: para
+ * inscribir un equipo se copia el índice, se agregan sus códigos y se
+ * publica la copia con {@code compareAndSet}, reintentando si otro puesto
+ * publicó antes. Así todos los códigos de un equipo se reservan de una vez,
+ * sin bloquear a los demás puestos, y un equipo queda inscrito entero o no
+ * queda. Copiar el índice cuesta lo que los jugadores inscritos, que en un
+ * torneo son pocos.</p>
+ *
+ * <p>Los equipos inscritos se publican como una lista inmutable que la
+ * interfaz y la partida pueden recorrer sin copiarla. Los equipos nuevos se
+ * guardan en el almacén de equipos desde un único hilo, que junta en una
+ * sola escritura todos los que llegaron mientras escribía el lote anterior.</p>
+ */
+public class CheckInService {
+
+    private final PersistenceControl persistence;
+
+    // Equipo inscrito por nombre (sin distinguir mayúsculas)
+    private final ConcurrentHashMap<String, Team> nombres = new ConcurrentHashMap<>();
+    // Jugadores inscritos por código; cada versión publicada es de solo lectura
+    private final AtomicReference<PlayerCodeIndex> codigos = new AtomicReference<>(new PlayerCodeIndex());
+
+    private final AtomicReference<List<Team>> roster = new AtomicReference<>(List.of());
+
+    // Equipos nuevos que todavía no se escribieron en el almacén
+    private final ConcurrentLinkedQueue<Team> pendientes = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean escrituraProgramada = new AtomicBoolean();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "check-in-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public CheckInService(PersistenceControl persistence) {
+        this.persistence = persistence;
+    }
+
+    /**
+     * Inscribe un equipo que ya estaba guardado.
+     *
+     * @param team equipo a inscribir
+     * @return mensaje de error, o null si quedó inscrito
+     */
+    public String checkIn(Team team) {
+        String error = claim(team);
+        if (error == null) {
+            publish(team);
+        }
+        return error;
+    }
+
+    /**
+     * Inscribe un equipo nuevo y lo deja en cola para guardarlo en el
+     * almacén de equipos. El equipo no se guarda si la inscripción se
+     * rechaza.
+     *
+     * @param team equipo nuevo
+     * @return mensaje de error, o null si quedó inscrito
+     */
+    public String register(Team team) {
+        String error = checkIn(team);
+        if (error == null) {
+            pendientes.add(team);
+            scheduleWrite();
+        }
+        return error;
+    }
+
+    /**
+     * Saca a un equipo del torneo y libera su nombre y sus códigos.
+     *
+     * @param team equipo inscrito
+     * @return true si estaba inscrito
+     */
+    public boolean withdraw(Team team) {
+        if (!nombres.remove(key(team.getName()), team)) {
+            return false;
+        }
+        codigos.updateAndGet(actual -> {
+            PlayerCodeIndex nuevo = new PlayerCodeIndex(actual);
+            nuevo.removeTeam(team);
+            return nuevo;
+        });
+        roster.updateAndGet(actual -> without(actual, team));
+        return true;
+    }
+
+    /**
+     * Reemplaza los equipos inscritos, por ejemplo al cargar una partida.
+     * Los equipos se aceptan aunque repitan nombres o códigos, porque ya
+     * jugaron juntos. No debe coincidir con inscripciones desde los puestos.
+     *
+     * @param teams equipos del torneo, vacía para empezar de cero
+     */
+    public void reset(List<Team> teams) {
+        nombres.clear();
+        PlayerCodeIndex nuevo = new PlayerCodeIndex();
+        for (Team team : teams) {
+            nombres.put(key(team.getName()), team);
+            nuevo.addTeam(team);
+        }
+        codigos.set(nuevo);
+        roster.set(Collections.unmodifiableList(new ArrayList<>(teams)));
+    }
+
+    /**
+     * Retorna los equipos inscritos en el orden en que se inscribieron.
+     * La lista no cambia aunque se inscriban equipos después.
+     *
+     * @return foto inmutable de los equipos inscritos
+     */
+    public List<Team> getRoster() {
+        return roster.get();
+    }
+
+    /**
+     * Busca el equipo inscrito al que pertenece un código.
+     *
+     * @param code código del jugador
+     * @return equipo inscrito, o null si el código está libre
+     */
+    public Team findTeamByPlayerCode(int code) {
+        return codigos.get().getTeam(code);
+    }
+
+    /**
+     * Espera a que se escriban en el almacén los equipos registrados hasta
+     * ahora.
+     *
+     * @throws InterruptedException si se interrumpe la espera
+     */
+    public void flush() throws InterruptedException {
+        try {
+            // El hilo de escritura atiende en orden: al llegar a esta tarea
+            // ya escribió los lotes programados antes
+            writer.submit(() -> { }).get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    // ─── RESERVAS ────────────────────────────────────────────────────────────
+
+    /**
+     * Reserva el nombre y los códigos del equipo. Si alguno ya estaba tomado,
+     * libera el nombre y no publica los códigos.
+     *
+     * @return mensaje de error, o null si se reservó todo
+     */
+    private String claim(Team team) {
+        String nombre = key(team.getName());
+        Team otro = nombres.putIfAbsent(nombre, team);
+        if (otro != null) {
+            return "Ya hay un equipo inscrito con el nombre " + otro.getName() + ".";
+        }
+
+        while (true) {
+            PlayerCodeIndex actual = codigos.get();
+            PlayerCodeIndex nuevo = new PlayerCodeIndex(actual);
+            for (Player player : team.getPlayers()) {
+                int code = player.getCode();
+                otro = actual.getTeam(code);
+                if (otro == null && nuevo.put(code, player, team) != null) {
+                    otro = team;
+                }
+                if (otro != null) {
+                    nombres.remove(nombre, team);
+                    return otro == team
+                        ? "Los códigos de los jugadores no pueden repetirse."
+                        : "El código " + code + " ya está inscrito en el equipo " + otro.getName() + ".";
+                }
+            }
+            if (codigos.compareAndSet(actual, nuevo)) {
+                return null;
+            }
+        }
+    }
+
+    private void publish(Team team) {
+        roster.updateAndGet(actual -> {
+            List<Team> nueva = new ArrayList<>(actual.size() + 1);
+            nueva.addAll(actual);
+            nueva.add(team);
+            return Collections.unmodifiableList(nueva);
+        });
+    }
+
+    private static List<Team> without(List<Team> actual, Team team) {
+        List<Team> nueva = new ArrayList<>(actual.size());
+        for (Team t : actual) {
+            if (t != team) {
+                nueva.add(t);
+            }
+        }
+        return Collections.unmodifiableList(nueva);
+    }
+
+    // ─── ESCRITURA ───────────────────────────────────────────────────────────
+
+    private void scheduleWrite() {
+        if (escrituraProgramada.compareAndSet(false, true)) {
+            writer.execute(this::writePending);
+        }
+    }
+
+    /**
+     * Escribe en un solo lote todos los equipos pendientes. La marca se baja
+     * antes de vaciar la cola: un equipo que llegue después programa otro lote.
+     */
+    private void writePending() {
+        escrituraProgramada.set(false);
+        List<Team> lote = new ArrayList<>();
+        Team team;
+        while ((team = pendientes.poll()) != null) {
+            lote.add(team);
+        }
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            persistence.saveTeams(lote);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
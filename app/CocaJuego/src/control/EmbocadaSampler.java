@@ -0,0 +1,212 @@
+package control;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import modelo.Embocada;
+
+/**
+ * Sorteo de en qué embocada cae un tiro, cuando el tiro puede terminar en
+ * cualquiera de ellas según pesos configurados.
+ *
+ * <p>Usa una tabla de alias (método de Vose) armada una sola vez: cada
+ * sorteo cuesta O(1) y un solo número al azar, sin importar cuántos
+ * resultados haya. La tabla trabaja con pesos enteros, así que la
+ * probabilidad de cada resultado es exactamente su peso sobre el total.</p>
+ *
+ * <p>Un resultado es el {@code ordinal()} de la embocada, o {@link #MISS}
+ * si el tiro falla. No es seguro entre hilos si su {@link RandomSource} no
+ * lo es; cada hilo puede usar {@link #split()}.</p>
+ */
+public class EmbocadaSampler {
+
+    /** Resultado de un tiro que no cae en ninguna embocada. */
+    public static final int MISS = -1;
+
+    private static final Embocada[] EMBOCADAS = Embocada.values();
+
+    private final RandomSource random;
+
+    // Columna i: con probabilidad threshold[i] / total sale outcome[i], si no alias[i]
+    private final int[] outcome;
+    private final int[] alias;
+    private final int[] threshold;
+    private final int total;
+    private final int bound;
+
+    /**
+     * @param weights peso de cada embocada; las que falten pesan 0
+     * @param missWeight peso de fallar el tiro
+     * @param random fuente de azar
+     */
+    public EmbocadaSampler(Map<Embocada, Integer> weights, int missWeight, RandomSource random) {
+        this.random = random;
+
+        int columnas = EMBOCADAS.length + 1;
+        int[] pesos = new int[columnas];
+        int[] resultados = new int[columnas];
+        long suma = 0;
+        for (int i = 0; i < EMBOCADAS.length; i++) {
+            Integer peso = weights.get(EMBOCADAS[i]);
+            pesos[i] = peso != null ? peso : 0;
+            resultados[i] = i;
+        }
+        pesos[EMBOCADAS.length] = missWeight;
+        resultados[EMBOCADAS.length] = MISS;
+        for (int peso : pesos) {
+            if (peso < 0) {
+                throw new IllegalArgumentException("Los pesos no pueden ser negativos");
+            }
+            suma += peso;
+        }
+        if (suma == 0) {
+            throw new IllegalArgumentException("Al menos un resultado debe tener peso");
+        }
+        if (suma * columnas > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("La suma de los pesos es demasiado grande: " + suma);
+        }
+
+        this.total = (int) suma;
+        this.bound = total * columnas;
+        this.outcome = resultados;
+        this.alias = new int[columnas];
+        this.threshold = new int[columnas];
+        build(pesos);
+    }
+
+    private EmbocadaSampler(EmbocadaSampler base, RandomSource random) {
+        this.random = random;
+        this.outcome = base.outcome;
+        this.alias = base.alias;
+        this.threshold = base.threshold;
+        this.total = base.total;
+        this.bound = base.bound;
+    }
+
+    /**
+     * Sorteo con los pesos del catálogo: cada embocada pesa su probabilidad
+     * y el tiro no falla.
+     *
+     * @param random fuente de azar
+     * @return sorteo armado
+     */
+    public static EmbocadaSampler ofCatalogue(RandomSource random) {
+        Map<Embocada, Integer> weights = new EnumMap<>(Embocada.class);
+        for (Embocada embocada : EMBOCADAS) {
+            weights.put(embocada, embocada.getProbability());
+        }
+        return new EmbocadaSampler(weights, 0, random);
+    }
+
+    /**
+     * Sorteo de un tiro a una sola embocada, igual que {@link Attemp}: acierta
+     * con su probabilidad (sobre 100) y si no, falla.
+     *
+     * @param embocada embocada elegida
+     * @param random fuente de azar
+     * @return sorteo armado
+     */
+    public static EmbocadaSampler of(Embocada embocada, RandomSource random) {
+        Map<Embocada, Integer> weights = new EnumMap<>(Embocada.class);
+        weights.put(embocada, embocada.getProbability());
+        return new EmbocadaSampler(weights, 100 - embocada.getProbability(), random);
+    }
+
+    /**
+     * Arma la tabla con pesos multiplicados por la cantidad de columnas,
+     * para comparar contra el total sin usar decimales.
+     */
+    private void build(int[] pesos) {
+        int n = pesos.length;
+        long[] escalado = new long[n];
+        int[] chicos = new int[n];
+        int[] grandes = new int[n];
+        int cantChicos = 0;
+        int cantGrandes = 0;
+        for (int i = 0; i < n; i++) {
+            escalado[i] = (long) pesos[i] * n;
+            if (escalado[i] < total) {
+                chicos[cantChicos++] = i;
+            } else {
+                grandes[cantGrandes++] = i;
+            }
+        }
+        while (cantChicos > 0 && cantGrandes > 0) {
+            int chico = chicos[--cantChicos];
+            int grande = grandes[--cantGrandes];
+            threshold[chico] = (int) escalado[chico];
+            alias[chico] = outcome[grande];
+            // Lo que le falta a la columna chica se lo quita a la grande
+            escalado[grande] -= total - escalado[chico];
+            if (escalado[grande] < total) {
+                chicos[cantChicos++] = grande;
+            } else {
+                grandes[cantGrandes++] = grande;
+            }
+        }
+        // Las columnas que quedan están llenas
+        while (cantGrandes > 0) {
+            int i = grandes[--cantGrandes];
+            threshold[i] = total;
+            alias[i] = outcome[i];
+        }
+        while (cantChicos > 0) {
+            int i = chicos[--cantChicos];
+            threshold[i] = total;
+            alias[i] = outcome[i];
+        }
+    }
+
+    /**
+     * Sortea un tiro.
+     *
+     * @return ordinal de la embocada en que cayó, o {@link #MISS}
+     */
+    public int sample() {
+        // Un solo número elige la columna (cociente) y la moneda (resto)
+        int r = random.nextInt(bound);
+        int columna = r / total;
+        return r - columna * total < threshold[columna] ? outcome[columna] : alias[columna];
+    }
+
+    /**
+     * Sortea varios tiros sin reservar memoria.
+     *
+     * @param n cantidad de tiros
+     * @param out arreglo donde se escriben los resultados, desde la posición 0
+     */
+    public void sample(int n, int[] out) {
+        if (n > out.length) {
+            throw new IllegalArgumentException("El arreglo tiene " + out.length + " posiciones y se pidieron " + n);
+        }
+        for (int i = 0; i < n; i++) {
+            out[i] = sample();
+        }
+    }
+
+    /**
+     * Crea un sorteo con la misma tabla y una fuente de azar independiente,
+     * para usarlo en otro hilo.
+     *
+     * @return sorteo nuevo
+     */
+    public EmbocadaSampler split() {
+        return new EmbocadaSampler(this, random.split());
+    }
+
+    /**
+     * @param result resultado de un sorteo
+     * @return embocada en que cayó, o null si falló
+     */
+    public static Embocada embocada(int result) {
+        return result == MISS ? null : EMBOCADAS[result];
+    }
+
+    /**
+     * @param result resultado de un sorteo
+     * @return puntos que da el resultado, 0 si falló
+     */
+    public static int points(int result) {
+        return result == MISS ? 0 : EMBOCADAS[result].getPoints();
+    }
+}
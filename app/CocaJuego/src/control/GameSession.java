@@ -41,6 +41,24 @@ public class GameSession {
         this.currentPlayerIndex = 0;
     }
 
+    /**
+     * Restaura una partida guardada: equipos, estadísticas y turno actual.
+     *
+     * @param teams lista de equipos en orden de juego
+     * @param stats estadísticas de cada equipo, en el mismo orden
+     * @param teamIndex índice del equipo que estaba jugando
+     * @param playerIndex índice del jugador actual dentro del equipo
+     */
+    public void restore(List<Team> teams, List<TeamStats> stats, int teamIndex, int playerIndex) {
+        table.clear();
+        for (int i = 0; i < teams.size(); i++) {
+            table.put(teams.get(i), stats.get(i));
+        }
+        this.order = teams;
+        this.currentTeamIndex = teamIndex;
+        this.currentPlayerIndex = playerIndex;
+    }
+
     /**
      * Retorna el orden de los equipos en la partida.
      *
@@ -88,6 +106,15 @@ public class GameSession {
         return order.get(currentTeamIndex);
     }
 
+    /**
+     * Retorna el índice del equipo que está jugando actualmente.
+     *
+     * @return índice del equipo actual
+     */
+    public int getCurrentTeamIndex() {
+        return currentTeamIndex;
+    }
+
     /**
      * Retorna el índice del jugador actual dentro del equipo.
      *
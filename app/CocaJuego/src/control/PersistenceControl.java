@@ -2,22 +2,63 @@ package control;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import modelo.Leaderboard;
 import modelo.Team;
+import persistence.ExportFormat;
+import persistence.ImportReport;
+import persistence.SaveSlot;
+import persistence.SaveSlots;
 import persistence.SavedTeams;
 import persistence.Serialization;
+import persistence.SessionJournal;
+import persistence.SessionSnapshot;
+import persistence.TeamStore;
+import persistence.WinnerRecord;
 import persistence.Winners;
 
 public class PersistenceControl {
 
+    /** Operación de disco que se ejecuta en el hilo de persistencia. */
+    private interface IoTask<T> {
+        T run() throws IOException;
+    }
+
     private Winners winners;
     private Serialization serialization;
+    private SessionJournal journal;
+    private SaveSlots saveSlots;
+    private TeamStore teamStore;
     private SavedTeams savedTeams;
 
+    // Hilo único de E/S: las operaciones asíncronas se ejecutan en el orden
+    // en que se pidieron y nunca en el hilo de la interfaz
+    private final ExecutorService io = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "persistence-io");
+        thread.setDaemon(true);
+        return thread;
+    });
+
     public PersistenceControl() {
         this.winners = new Winners();
         this.serialization = new Serialization();
+        this.journal = new SessionJournal();
+        this.saveSlots = new SaveSlots();
+        this.teamStore = new TeamStore();
         this.savedTeams = new SavedTeams();
+        if (!teamStore.exists()) {
+            submit(this::migrateSavedTeams).exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
+        }
     }
 
     public boolean saveMatchSer(List<Team> teams) {
@@ -28,14 +69,123 @@ public class PersistenceControl {
         return serialization.load();
     }
 
+    public List<SaveSlot> listSaveSlots() throws IOException {
+        return saveSlots.list();
+    }
+
+    public List<Team> loadSaveSlot(SaveSlot slot) throws IOException {
+        return saveSlots.load(slot);
+    }
+
+    public int getSaveSlotLimit() {
+        return saveSlots.getMaxSlots();
+    }
+
+    public void setSaveSlotLimit(int max) throws IOException {
+        saveSlots.setMaxSlots(max);
+    }
+
+    public boolean hasUnfinishedSession() {
+        return journal.hasSession();
+    }
+
+    public void startSessionJournal(SessionSnapshot inicial) {
+        journal.start(inicial);
+    }
+
+    public void journalAttempt(int points) {
+        journal.attempt(points);
+    }
+
+    public void journalNextTurn() {
+        journal.nextTurn();
+    }
+
+    public boolean isSnapshotDue() {
+        return journal.isSnapshotDue();
+    }
+
+    public void saveSessionSnapshot(SessionSnapshot estado) {
+        journal.snapshot(estado);
+    }
+
+    public SessionJournal.Recovery recoverSession() {
+        return journal.recover();
+    }
+
+    public void clearSessionJournal() {
+        journal.clear();
+    }
+
     public void saveTeamProperties(Team team) {
-        savedTeams.saveTeam(team);
+        try {
+            teamStore.put(team);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Guarda varios equipos en el almacén con una sola escritura.
+     * Se puede llamar desde cualquier hilo.
+     *
+     * @param teams equipos a guardar
+     * @throws IOException si no se pudo escribir
+     */
+    public void saveTeams(List<Team> teams) throws IOException {
+        teamStore.putAll(teams);
     }
 
+    /**
+     * Carga un equipo guardado por nombre.
+     *
+     * @param name nombre del equipo
+     * @return equipo guardado, o null si no existe o no se pudo leer
+     */
+    public Team loadTeamProperties(String name) {
+        try {
+            return teamStore.get(name);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Carga un equipo desde un archivo .properties suelto, fuera del almacén.
+     * Se lee solo ese archivo.
+     *
+     * @param file archivo del equipo
+     * @return equipo leído, o null si no se pudo leer
+     */
     public Team loadTeamProperties(File file) {
         return savedTeams.loadTeam(file);
     }
 
+    public Team findTeamByPlayerCode(int code) {
+        try {
+            return teamStore.findByPlayerCode(code);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    public List<String> listSavedTeamNames() throws IOException {
+        return teamStore.names();
+    }
+
+    /**
+     * Escribe cada equipo guardado como un .properties en la carpeta indicada.
+     *
+     * @param directorio carpeta de destino
+     * @return cantidad de equipos escritos
+     * @throws IOException si no se pudo exportar
+     */
+    public int exportTeamProperties(Path directorio) throws IOException {
+        return teamStore.exportProperties(directorio);
+    }
+
     public void saveWinner(Team team, int score) throws IOException {
         winners.saveWinner(team, score);
     }
@@ -44,4 +194,109 @@ public class PersistenceControl {
         return winners.timesWinned(teamName);
     }
 
+    public List<WinnerRecord> lastWinners(int n) throws IOException {
+        return winners.tail(n);
+    }
+
+    public Leaderboard loadLeaderboard() throws IOException {
+        return winners.leaderboard();
+    }
+
+    public List<String> getWinnersWarnings() {
+        return winners.getStartupWarnings();
+    }
+
+    // ─── OPERACIONES ASÍNCRONAS ──────────────────────────────────────────────
+
+    /**
+     * Guarda los equipos en una ranura nueva, con su manifiesto,
+     * en el hilo de persistencia.
+     *
+     * @param teams equipos a guardar; no se deben modificar mientras tanto
+     * @return manifiesto de la ranura creada
+     */
+    public CompletableFuture<SaveSlot> saveSlotAsync(List<Team> teams) {
+        return submit(() -> saveSlots.save(teams));
+    }
+
+    /**
+     * Importa equipos de un archivo con varios equipos o de una carpeta y
+     * los guarda en el almacén de equipos, en el hilo de persistencia.
+     * Un equipo con el mismo nombre que uno guardado lo reemplaza.
+     *
+     * @param source archivo o carpeta a importar
+     * @return equipos guardados y entradas descartadas
+     */
+    public CompletableFuture<ImportReport> importTeamsAsync(Path source) {
+        return submit(() -> teamStore.importProperties(source));
+    }
+
+    /**
+     * Guarda el ganador y cuenta sus victorias en el hilo de persistencia.
+     *
+     * @param team equipo ganador
+     * @param score puntaje obtenido
+     * @return victorias del equipo, incluida la recién guardada
+     */
+    public CompletableFuture<Integer> saveWinnerAsync(Team team, int score) {
+        return submit(() -> {
+            winners.saveWinner(team, score);
+            return winners.timesWinned(team.getName());
+        });
+    }
+
+    /**
+     * Calcula la tabla histórica en el hilo de persistencia.
+     *
+     * @return tabla histórica
+     */
+    public CompletableFuture<Leaderboard> loadLeaderboardAsync() {
+        return submit(winners::leaderboard);
+    }
+
+    /**
+     * Exporta los registros de ganadores a un archivo de texto en el hilo de
+     * persistencia. El archivo se crea o se sobrescribe.
+     *
+     * @param destino archivo de salida
+     * @param formato CSV o líneas JSON
+     * @param equipo nombre del equipo a exportar, o null para todos
+     * @param from primera clave, incluida
+     * @param to última clave, incluida
+     * @return cantidad de registros exportados
+     */
+    public CompletableFuture<Long> exportWinnersAsync(Path destino, ExportFormat formato,
+                                                      String equipo, long from, long to) {
+        return submit(() -> winners.export(destino, formato, equipo, from, to));
+    }
+
+    /**
+     * Al crear el almacén de equipos, copia en él los .properties que se
+     * guardaban uno por equipo. Los archivos no se borran.
+     */
+    private ImportReport migrateSavedTeams() throws IOException {
+        Path carpeta = Paths.get(SavedTeams.DIRECTORIO);
+        if (!Files.isDirectory(carpeta)) {
+            return null;
+        }
+        ImportReport report = teamStore.importProperties(carpeta);
+        for (ImportReport.Problem problem : report.getProblems()) {
+            System.err.println("Equipo no migrado: " + problem);
+        }
+        for (ImportReport.Problem warning : report.getWarnings()) {
+            System.err.println("Equipo migrado con aviso: " + warning);
+        }
+        return report;
+    }
+
+    private <T> CompletableFuture<T> submit(IoTask<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.run();
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, io);
+    }
+
 }
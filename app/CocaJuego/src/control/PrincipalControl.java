@@ -4,10 +4,18 @@ import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import modelo.Embocada;
+import modelo.Leaderboard;
 import modelo.Player;
 import modelo.Team;
 import modelo.TeamStats;
+import persistence.ExportFormat;
+import persistence.ImportReport;
+import persistence.SaveSlot;
+import persistence.SessionJournal;
+import persistence.SessionSnapshot;
 
 /**
  * Controlador principal de la aplicación.
@@ -21,8 +29,12 @@ public class PrincipalControl {
     private TeamsGeneralControl teamsControl;
     private GameSession session;
     private Attemp attemp;
+    private CheckInService checkIn;
+    private StrategyEngine strategy;
+
+    // Semilla de los intentos del torneo, o null si no se pueden repetir
+    private Long tournamentSeed;
 
-    private List<Team> teams;
     private Team lastAddedTeam;
     private String lastResult;
 
@@ -30,10 +42,28 @@ public class PrincipalControl {
         this.persistenceControl = new PersistenceControl();
         this.teamsControl       = new TeamsGeneralControl();
         this.attemp             = new Attemp();
-        this.teams              = new ArrayList<>();
+        this.checkIn            = new CheckInService(persistenceControl);
+        this.tournamentSeed     = newSeed();
+        // Al salir con "Salir" o cerrando la ventana, los equipos registrados
+        // que siguen en la cola de escritura se terminan de guardar
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flushCheckIns, "check-in-flush"));
         this.vistaControl        = new VistaControl(this);
     }
 
+    /**
+     * Espera a que se guarden los equipos registrados. Se llama al cerrar
+     * el programa: el hilo de escritura es daemon y no lo retiene.
+     */
+    private void flushCheckIns() {
+        try {
+            checkIn.flush();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IllegalStateException e) {
+            e.printStackTrace();
+        }
+    }
+
     // ─── GESTIÓN DE EQUIPOS ──────────────────────────────────────────────────
 
     /**
@@ -46,6 +76,56 @@ public class PrincipalControl {
         return persistenceControl.loadTeamProperties(file);
     }
 
+    /**
+     * Retorna los nombres de los equipos guardados.
+     *
+     * @return nombres en orden alfabético, vacía si no se pudieron leer
+     */
+    public List<String> getSavedTeamNames() {
+        try {
+            return persistenceControl.listSavedTeamNames();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Busca un equipo guardado por nombre.
+     *
+     * @param name nombre del equipo, sin distinguir mayúsculas
+     * @return equipo encontrado, null si no existe
+     */
+    public Team findSavedTeam(String name) {
+        return persistenceControl.loadTeamProperties(name);
+    }
+
+    /**
+     * Busca el equipo guardado al que pertenece un jugador.
+     *
+     * @param code código del jugador
+     * @return equipo encontrado, null si ningún equipo tiene ese código
+     */
+    public Team findSavedTeamByPlayer(int code) {
+        return persistenceControl.findTeamByPlayerCode(code);
+    }
+
+    /**
+     * Importa y guarda los equipos de un archivo con varios equipos o de una
+     * carpeta de archivos .properties, en el hilo de persistencia.
+     * Los equipos quedan guardados, no inscritos en el torneo.
+     *
+     * @param source archivo o carpeta a importar
+     * @return informe de la importación, o null si no se pudo leer el origen
+     */
+    public CompletableFuture<ImportReport> importTeams(File source) {
+        return persistenceControl.importTeamsAsync(source.toPath())
+            .exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
+    }
+
     /**
      * Valida el PIN y códigos de un equipo y lo agrega si son correctos.
      * Retorna null si todo está bien, o un mensaje de error si hay problema.
@@ -79,13 +159,12 @@ public class PrincipalControl {
             return "PIN o códigos incorrectos.";
         }
 
-        addTeam(validated);
-        return null;
+        return addTeam(validated);
     }
 
     /**
-     * Crea un equipo nuevo desde el formulario, guarda el .properties
-     * y lo agrega a la lista del torneo.
+     * Crea un equipo nuevo desde el formulario y lo inscribe en el torneo.
+     * El equipo se guarda en el almacén de equipos en segundo plano.
      * Retorna null si todo está bien, o un mensaje de error si hay problema.
      *
      * @return mensaje de error o null si es válido
@@ -120,12 +199,13 @@ public class PrincipalControl {
 
             if (codigos.stream().distinct().count() != codigos.size()) {
                 return "Los códigos de los jugadores no pueden repetirse.";
-            }           
-
+            }
             Team team = teamsControl.createTeam(nombre, proyecto, nombres, codigos, pinInt);
-            persistenceControl.saveTeamProperties(team);
-            addTeam(team);
-            return null;
+            String error = checkIn.register(team);
+            if (error == null) {
+                lastAddedTeam = team;
+            }
+            return error;
 
         } catch (NumberFormatException e) {
             return "PIN y códigos deben ser numéricos.";
@@ -133,13 +213,18 @@ public class PrincipalControl {
     }
 
     /**
-     * Agrega un equipo a la lista del torneo.
+     * Agrega un equipo a la lista del torneo, si su nombre y sus códigos
+     * no están ya inscritos.
      *
      * @param team equipo a agregar
+     * @return mensaje de error o null si quedó inscrito
      */
-    public void addTeam(Team team) {
-        teams.add(team);
-        lastAddedTeam = team;
+    public String addTeam(Team team) {
+        String error = checkIn.checkIn(team);
+        if (error == null) {
+            lastAddedTeam = team;
+        }
+        return error;
     }
 
     /**
@@ -148,32 +233,121 @@ public class PrincipalControl {
      * @param index índice del equipo a eliminar
      */
     public void removeTeam(int index) {
+        List<Team> teams = checkIn.getRoster();
         if (index >= 0 && index < teams.size()) {
-            teams.remove(index);
+            checkIn.withdraw(teams.get(index));
         }
     }
 
     /**
-     * Carga los equipos serializados de la última sesión.
+     * Carga la última sesión. Si quedó una partida sin terminar, se retoma
+     * en el turno exacto a partir del diario de la sesión; si no, se cargan
+     * los equipos serializados y la partida empieza de cero.
      * Retorna null si cargó correctamente, o mensaje de error si no hay datos.
      *
      * @return mensaje de error o null si cargó bien
      */
     public String loadLastSession() {
+        if (resumeSession()) {
+            return null;
+        }
+        List<SaveSlot> slots = getSaveSlots();
+        if (!slots.isEmpty()) {
+            return loadSaveSlot(slots.get(0));
+        }
+        // Partidas guardadas antes de que existieran las ranuras
         List<Team> loaded = persistenceControl.loadMatchSer();
         if (loaded.isEmpty()) {
             return "No se encontró ninguna partida guardada.";
         }
-        teams = loaded;
+        checkIn.reset(loaded);
+        initSession();
+        return null;
+    }
+
+    /**
+     * Retorna lo que se reparó o no se pudo reparar en el archivo de
+     * ganadores al iniciar.
+     * Retorna null si estaba íntegro, o el mensaje para mostrar si no.
+     */
+    public String getStartupWarning() {
+        List<String> avisos = persistenceControl.getWinnersWarnings();
+        return avisos.isEmpty() ? null : String.join("\n", avisos);
+    }
+
+    /**
+     * Indica si quedó una partida sin terminar que se puede retomar.
+     *
+     * @return true si hay una partida para retomar
+     */
+    public boolean hasUnfinishedSession() {
+        return persistenceControl.hasUnfinishedSession();
+    }
+
+    /**
+     * Retorna las partidas guardadas sin cargar sus equipos.
+     *
+     * @return partidas de la más reciente a la más antigua, vacía si no se pudieron leer
+     */
+    public List<SaveSlot> getSaveSlots() {
+        try {
+            return persistenceControl.listSaveSlots();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Carga los equipos de una partida guardada e inicia la sesión con ellos.
+     * Retorna null si cargó correctamente, o mensaje de error si no se pudo.
+     *
+     * @param slot partida elegida
+     * @return mensaje de error o null si cargó bien
+     */
+    public String loadSaveSlot(SaveSlot slot) {
+        List<Team> loaded;
+        try {
+            loaded = persistenceControl.loadSaveSlot(slot);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "La partida guardada está dañada.";
+        }
+        if (loaded.isEmpty()) {
+            return "La partida guardada no tiene equipos.";
+        }
+        checkIn.reset(loaded);
         initSession();
         return null;
     }
 
+    /**
+     * Retorna cuántas partidas guardadas se conservan; 0 si se conservan todas.
+     */
+    public int getSaveSlotLimit() {
+        return persistenceControl.getSaveSlotLimit();
+    }
+
+    /**
+     * Fija cuántas partidas guardadas se conservan; 0 para conservarlas todas.
+     * Retorna null si se guardó, o mensaje de error si no se pudo.
+     */
+    public String setSaveSlotLimit(int max) {
+        try {
+            persistenceControl.setSaveSlotLimit(max);
+            return null;
+        } catch (Exception e) {
+            e.printStackTrace();
+            return "No se pudo guardar la configuración de partidas guardadas.";
+        }
+    }
+
     /**
      * Resetea el estado del torneo.
      */
     public void reset() {
-        teams.clear();
+        checkIn.reset(List.of());
+        tournamentSeed = newSeed();
         session = null;
         lastAddedTeam = null;
         lastResult = null;
@@ -185,8 +359,116 @@ public class PrincipalControl {
      * Inicializa la sesión de juego con los equipos actuales.
      */
     public void initSession() {
+        attemp = newAttemp(tournamentSeed);
         session = new GameSession();
-        session.createTable(teams);
+        session.createTable(checkIn.getRoster());
+        persistenceControl.startSessionJournal(captureSession());
+    }
+
+    private static Attemp newAttemp(Long seed) {
+        return new Attemp(seed != null ? RandomSource.seeded(seed) : RandomSource.threadLocal());
+    }
+
+    /**
+     * Elige la semilla de los intentos de la próxima partida. Con la semilla
+     * de una partida anterior y las mismas embocadas elegidas en el mismo
+     * orden, cada intento da el mismo resultado.
+     *
+     * @param seed semilla, o null para usar azar que no se puede repetir
+     */
+    public void setTournamentSeed(Long seed) {
+        tournamentSeed = seed;
+    }
+
+    /**
+     * @return semilla de los intentos del torneo, o null si no tiene
+     */
+    public Long getTournamentSeed() {
+        return tournamentSeed;
+    }
+
+    private static Long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Retoma la partida guardada en el diario: restaura la última foto
+     * y vuelve a aplicar los intentos y cambios de turno posteriores.
+     * Si la partida tenía semilla, los intentos siguen la misma sucesión
+     * desde donde quedó; si no la tenía (o se guardó con una versión que
+     * no la registraba), siguen con azar que no se puede repetir.
+     *
+     * @return true si había una partida sin terminar y se retomó
+     */
+    private boolean resumeSession() {
+        SessionJournal.Recovery recovery = persistenceControl.recoverSession();
+        if (recovery == null) {
+            return false;
+        }
+        SessionSnapshot snapshot = recovery.getSnapshot();
+        List<Team> loaded = new ArrayList<>(snapshot.getTeams());
+        List<TeamStats> stats = new ArrayList<>();
+        for (int i = 0; i < loaded.size(); i++) {
+            stats.add(new TeamStats(snapshot.getPoints(i), snapshot.getAttempts(i),
+                    snapshot.getEmbocadas(i)));
+        }
+
+        GameSession restored = new GameSession();
+        restored.restore(loaded, stats,
+                snapshot.getCurrentTeamIndex(), snapshot.getCurrentPlayerIndex());
+        for (int event : recovery.getEvents()) {
+            if (restored.isFinished()) {
+                break;
+            }
+            if (event == SessionJournal.NEXT_TURN) {
+                restored.next();
+            } else {
+                restored.addPoints(event);
+            }
+        }
+        if (loaded.isEmpty() || restored.isFinished()) {
+            persistenceControl.clearSessionJournal();
+            return false;
+        }
+
+        checkIn.reset(loaded);
+        session = restored;
+        tournamentSeed = snapshot.getSeed();
+        attemp = newAttemp(tournamentSeed);
+        // Cada intento usó un número de la sucesión
+        long hechos = 0;
+        for (Team team : loaded) {
+            hechos += restored.getStats(team).getAttempts();
+        }
+        attemp.skip(hechos);
+        return true;
+    }
+
+    /**
+     * Copia el estado actual de la sesión para guardarlo en el diario.
+     */
+    private SessionSnapshot captureSession() {
+        List<Team> order = session.getOrder();
+        int[] points = new int[order.size()];
+        int[] attempts = new int[order.size()];
+        int[] embocadas = new int[order.size()];
+        for (int i = 0; i < order.size(); i++) {
+            TeamStats stats = session.getStats(order.get(i));
+            points[i] = stats.getPoints();
+            attempts[i] = stats.getAttempts();
+            embocadas[i] = stats.getEmbocadas();
+        }
+        return new SessionSnapshot(new ArrayList<>(order), points, attempts, embocadas,
+                session.getCurrentTeamIndex(), session.getCurrentPlayerIndex(), tournamentSeed);
+    }
+
+    /**
+     * Toma una foto de la sesión cuando el diario acumuló suficientes cambios.
+     */
+    private void snapshotIfDue() {
+        if (persistenceControl.isSnapshotDue()) {
+            persistenceControl.saveSessionSnapshot(captureSession());
+        }
     }
 
     /**
@@ -197,6 +479,8 @@ public class PrincipalControl {
     public void executeAttemp(Embocada embocada) {
         int points = attemp.execute(embocada);
         session.addPoints(points);
+        persistenceControl.journalAttempt(points);
+        snapshotIfDue();
 
         lastResult = points > 0
             ? embocada.name() + " (+" + points + "pts)"
@@ -208,6 +492,46 @@ public class PrincipalControl {
      */
     public void nextTurn() {
         session.next();
+        persistenceControl.journalNextTurn();
+        snapshotIfDue();
+    }
+
+    /**
+     * Sugiere la embocada que da más probabilidad de superar al mejor
+     * puntaje de los equipos que ya jugaron, con los tiros que le quedan al
+     * equipo actual. El primer equipo no tiene a quién superar y se le
+     * sugiere la de más puntos esperados.
+     *
+     * @param segundosRestantes segundos que le quedan al jugador actual
+     * @param tiempoPorJugador segundos de cada jugador
+     * @param segundosPorIntento segundos que se supone que toma cada tiro
+     * @return texto de la sugerencia
+     */
+    public String getSuggestion(int segundosRestantes, int tiempoPorJugador, int segundosPorIntento) {
+        Team team = session.getCurrentTeam();
+        int jugadoresDespues = team.getPlayers().size() - session.getCurrentPlayerIndex() - 1;
+        int tiros = StrategyEngine.throwsLeft(segundosRestantes, jugadoresDespues, tiempoPorJugador,
+                segundosPorIntento);
+
+        // La tabla se arma una vez por torneo, o de nuevo si un equipo tiene más jugadores
+        int maxTiros = StrategyEngine.throwsLeft(0, team.getPlayers().size(), tiempoPorJugador,
+                segundosPorIntento);
+        if (strategy == null || strategy.getMaxThrows() < Math.max(maxTiros, tiros)) {
+            strategy = new StrategyEngine(Math.max(maxTiros, tiros));
+        }
+
+        int lider = -1;
+        List<Team> order = session.getOrder();
+        for (int i = 0; i < session.getCurrentTeamIndex(); i++) {
+            lider = Math.max(lider, session.getStats(order.get(i)).getPoints());
+        }
+        if (lider < 0) {
+            return strategy.getBestExpected().name() + " (más puntos esperados)";
+        }
+        int faltan = lider - getCurrentTeamPoints() + 1;
+        Embocada sugerida = strategy.suggest(tiros, faltan);
+        return String.format("%s (%.0f%% de superar %d pts)",
+                sugerida.name(), 100 * strategy.winProbability(tiros, faltan), lider);
     }
 
     /**
@@ -220,31 +544,72 @@ public class PrincipalControl {
     }
 
     /**
-     * Finaliza el juego: serializa equipos, guarda ganador en RAF
-     * y retorna el número de victorias del ganador.
+     * Finaliza el juego: guarda los equipos en una ranura nueva y el ganador
+     * en el hilo de persistencia, sin bloquear la interfaz.
+     * El resultado es el número de victorias del ganador; si no se pudo
+     * guardar, se informa 1.
      *
-     * @return número de victorias del equipo ganador
+     * @return número de victorias del equipo ganador, cuando termine de guardarse
      */
-    public int finishGame() {
-        // Serializar equipos
-        persistenceControl.saveMatchSer(teams);
+    public CompletableFuture<Integer> finishGame() {
+        // La partida terminó: ya no hay nada que retomar
+        persistenceControl.clearSessionJournal();
+
+        // La lista inscrita es inmutable: no cambia si se empieza otro torneo mientras se guarda
+        persistenceControl.saveSlotAsync(checkIn.getRoster())
+            .exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
 
-        // Guardar ganador en RandomAccessFile
         Team winner = session.getWinner();
         int points  = session.getStats(winner).getPoints();
 
-        try {
-            persistenceControl.saveWinner(winner, points);
-            return persistenceControl.countWins(winner.getName());
-        } catch (Exception e) {
-            e.printStackTrace();
-            return 1;
-        }
+        return persistenceControl.saveWinnerAsync(winner, points)
+            .exceptionally(e -> {
+                e.printStackTrace();
+                return 1;
+            });
+    }
+
+    /**
+     * Calcula la tabla histórica de campeones a partir del archivo de ganadores,
+     * en el hilo de persistencia. Si se pide después de {@link #finishGame()},
+     * ya incluye al último ganador.
+     *
+     * @return tabla histórica, o null si no se pudo leer el archivo
+     */
+    public CompletableFuture<Leaderboard> getLeaderboard() {
+        return persistenceControl.loadLeaderboardAsync()
+            .exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
+    }
+
+    /**
+     * Exporta los ganadores a un archivo de texto, en el hilo de persistencia.
+     *
+     * @param destino archivo de salida; se sobrescribe si existe
+     * @param formato CSV o líneas JSON
+     * @param equipo nombre del equipo a exportar, o null para todos
+     * @param from primera clave, incluida
+     * @param to última clave, incluida
+     * @return cantidad de registros exportados, o null si no se pudo exportar
+     */
+    public CompletableFuture<Long> exportWinners(File destino, ExportFormat formato,
+                                                 String equipo, long from, long to) {
+        return persistenceControl.exportWinnersAsync(destino.toPath(), formato, equipo, from, to)
+            .exceptionally(e -> {
+                e.printStackTrace();
+                return null;
+            });
     }
 
     // ─── GETTERS PARA VISTACONTROL ───────────────────────────────────────────
 
-    public List<Team> getTeams()              { return teams;                          }
+    public List<Team> getTeams()              { return checkIn.getRoster();            }
+    public CheckInService getCheckIn()        { return checkIn;                        }
     public Team getLastAddedTeam()            { return lastAddedTeam;                  }
     public String getLastResult()             { return lastResult != null ? lastResult : "-"; }
     public GameSession getSession()           { return session;                        }
@@ -0,0 +1,45 @@
+package control;
+
+/**
+ * Fuente de números al azar para los intentos de embocada.
+ *
+ * <p>Hay tres implementaciones:</p>
+ * <ul>
+ *   <li>{@link #threadLocal()}: {@code ThreadLocalRandom}, se puede
+ *       compartir entre hilos.</li>
+ *   <li>{@link #splittable()}: {@code SplittableRandom}, rápida pero de un
+ *       solo hilo; para repartir entre hilos se usa {@link #split()}.</li>
+ *   <li>{@link #seeded(long)}: sucesión fija a partir de una semilla, para
+ *       repetir una partida tiro por tiro. También es de un solo hilo.</li>
+ * </ul>
+ *
+ * <p>Ninguna reserva memoria por número generado.</p>
+ */
+public interface RandomSource {
+
+    /**
+     * @param bound límite exclusivo, positivo
+     * @return número uniforme entre 0 (incluido) y {@code bound} (excluido)
+     */
+    int nextInt(int bound);
+
+    /**
+     * Crea una fuente independiente de esta, para usarla en otro hilo.
+     * Si esta tiene semilla, la nueva también queda determinada por ella.
+     *
+     * @return fuente nueva
+     */
+    RandomSource split();
+
+    static RandomSource threadLocal() {
+        return ThreadLocalRandomSource.INSTANCE;
+    }
+
+    static RandomSource splittable() {
+        return new SplittableRandomSource();
+    }
+
+    static RandomSource seeded(long seed) {
+        return new SeededRandomSource(seed);
+    }
+}
@@ -0,0 +1,64 @@
+package control;
+
+/**
+ * Fuente determinada por una semilla: con la misma semilla da siempre la
+ * misma sucesión de números, en cualquier máquina y versión de Java.
+ * Sirve para repetir exactamente una partida en disputa.
+ *
+ * <p>El algoritmo está escrito aquí y no se toma de la biblioteca, para que
+ * una actualización de Java no cambie los resultados: SplitMix64 para los
+ * números de 64 bits y el método de multiplicación de Lemire, con rechazo,
+ * para llevarlos a un rango sin sesgo. No es segura entre hilos.</p>
+ */
+public final class SeededRandomSource implements RandomSource {
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final long seed;
+    private long state;
+
+    public SeededRandomSource(long seed) {
+        this.seed = seed;
+        this.state = seed;
+    }
+
+    /**
+     * @return semilla con la que se creó la fuente
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * @return siguiente número de 64 bits de la sucesión
+     */
+    public long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("El límite debe ser positivo: " + bound);
+        }
+        long m = (nextLong() >>> 32) * bound;
+        long bajos = m & 0xffffffffL;
+        if (bajos < bound) {
+            // 2^32 mod bound: los valores bajos que harían más probables algunos resultados
+            long umbral = (0x100000000L - bound) % bound;
+            while (bajos < umbral) {
+                m = (nextLong() >>> 32) * bound;
+                bajos = m & 0xffffffffL;
+            }
+        }
+        return (int) (m >>> 32);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SeededRandomSource(nextLong());
+    }
+}
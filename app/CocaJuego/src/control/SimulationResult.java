@@ -0,0 +1,197 @@
+package control;
+
+import java.util.List;
+
+/**
+ * Resultados acumulados de muchas partidas simuladas con
+ * {@link TournamentSimulator}: victorias de cada equipo e histogramas de
+ * puntos.
+ *
+ * <p>Cada hilo de la simulación llena su propio resultado y al final se
+ * suman con {@link #merge(SimulationResult)}, así que no es seguro entre
+ * hilos ni necesita serlo.</p>
+ */
+public class SimulationResult {
+
+    private long matches;
+    private final long[] wins;
+    // Partidas en que el ganador empató en puntos y embocadas y ganó por orden
+    private long orderTieBreaks;
+    private final long[][] points;
+    private final long[] winningScores;
+
+    SimulationResult(int teams, int maxPoints) {
+        this.wins = new long[teams];
+        this.points = new long[teams][maxPoints + 1];
+        this.winningScores = new long[maxPoints + 1];
+    }
+
+    /**
+     * Registra una partida, con las mismas reglas de
+     * {@link GameSession#getWinner()}: gana el de más puntos; si empatan,
+     * el de más embocadas; si siguen empatados, el que jugó primero.
+     */
+    void record(int[] puntos, int[] embocadas) {
+        int ganador = 0;
+        boolean porOrden = false;
+        for (int t = 1; t < puntos.length; t++) {
+            if (puntos[t] > puntos[ganador]
+                    || (puntos[t] == puntos[ganador] && embocadas[t] > embocadas[ganador])) {
+                ganador = t;
+                porOrden = false;
+            } else if (puntos[t] == puntos[ganador] && embocadas[t] == embocadas[ganador]) {
+                porOrden = true;
+            }
+        }
+        for (int t = 0; t < puntos.length; t++) {
+            points[t][puntos[t]]++;
+        }
+        matches++;
+        wins[ganador]++;
+        winningScores[puntos[ganador]]++;
+        if (porOrden) {
+            orderTieBreaks++;
+        }
+    }
+
+    /**
+     * Suma a este resultado los de otro con los mismos equipos.
+     *
+     * @param other resultado a sumar
+     * @return este resultado
+     */
+    SimulationResult merge(SimulationResult other) {
+        matches += other.matches;
+        orderTieBreaks += other.orderTieBreaks;
+        for (int t = 0; t < wins.length; t++) {
+            wins[t] += other.wins[t];
+            for (int p = 0; p < points[t].length; p++) {
+                points[t][p] += other.points[t][p];
+            }
+        }
+        for (int p = 0; p < winningScores.length; p++) {
+            winningScores[p] += other.winningScores[p];
+        }
+        return this;
+    }
+
+    // ─── CONSULTAS ───────────────────────────────────────────────────────────
+
+    public long getMatches() {
+        return matches;
+    }
+
+    public int getTeamCount() {
+        return wins.length;
+    }
+
+    public long getWins(int team) {
+        return wins[team];
+    }
+
+    public long getOrderTieBreaks() {
+        return orderTieBreaks;
+    }
+
+    /**
+     * @param team índice del equipo en el orden de juego
+     * @return fracción de partidas que ganó
+     */
+    public double getWinProbability(int team) {
+        return matches == 0 ? 0 : (double) wins[team] / matches;
+    }
+
+    /**
+     * @param team índice del equipo en el orden de juego
+     * @return mitad del intervalo de confianza del 95 % de su probabilidad de ganar
+     */
+    public double getWinProbabilityError(int team) {
+        if (matches == 0) {
+            return 0;
+        }
+        double p = getWinProbability(team);
+        return 1.96 * Math.sqrt(p * (1 - p) / matches);
+    }
+
+    /**
+     * @param team índice del equipo en el orden de juego
+     * @return puntos promedio por partida
+     */
+    public double getMeanPoints(int team) {
+        return mean(points[team]);
+    }
+
+    /**
+     * @param team índice del equipo en el orden de juego
+     * @param q fracción entre 0 y 1, por ejemplo 0.5 para la mediana
+     * @return puntaje por debajo del cual quedó esa fracción de sus partidas
+     */
+    public int getPointsPercentile(int team, double q) {
+        return percentile(points[team], q);
+    }
+
+    /**
+     * @param q fracción entre 0 y 1
+     * @return percentil del puntaje con que se ganaron las partidas
+     */
+    public int getWinningScorePercentile(double q) {
+        return percentile(winningScores, q);
+    }
+
+    /**
+     * Arma una tabla con la probabilidad de ganar y la distribución de
+     * puntos de cada equipo.
+     *
+     * @param labels nombre de cada equipo, en el orden de juego
+     * @return tabla en texto
+     */
+    public String report(List<String> labels) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%d partidas simuladas%n", matches));
+        sb.append(String.format("%-24s %9s %8s %9s %6s %6s %6s%n",
+                "equipo", "P(ganar)", "±95%", "promedio", "p10", "p50", "p90"));
+        for (int t = 0; t < wins.length; t++) {
+            sb.append(String.format("%-24s %8.4f%% %7.4f%% %9.2f %6d %6d %6d%n",
+                    labels.get(t),
+                    100 * getWinProbability(t), 100 * getWinProbabilityError(t),
+                    getMeanPoints(t),
+                    getPointsPercentile(t, 0.1), getPointsPercentile(t, 0.5),
+                    getPointsPercentile(t, 0.9)));
+        }
+        sb.append(String.format("Puntaje ganador: p10 %d, p50 %d, p90 %d%n",
+                getWinningScorePercentile(0.1), getWinningScorePercentile(0.5),
+                getWinningScorePercentile(0.9)));
+        sb.append(String.format("Ganadas por orden de juego tras empatar: %.4f%%%n",
+                matches == 0 ? 0 : 100.0 * orderTieBreaks / matches));
+        return sb.toString();
+    }
+
+    private static double mean(long[] histograma) {
+        long n = 0;
+        double suma = 0;
+        for (int p = 0; p < histograma.length; p++) {
+            n += histograma[p];
+            suma += (double) p * histograma[p];
+        }
+        return n == 0 ? 0 : suma / n;
+    }
+
+    private static int percentile(long[] histograma, double q) {
+        long n = 0;
+        for (long c : histograma) {
+            n += c;
+        }
+        if (n == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(q * n);
+        long acumulado = 0;
+        for (int p = 0; p < histograma.length; p++) {
+            acumulado += histograma[p];
+            if (acumulado >= Math.max(objetivo, 1)) {
+                return p;
+            }
+        }
+        return histograma.length - 1;
+    }
+}
@@ -0,0 +1,30 @@
+package control;
+
+import java.util.SplittableRandom;
+
+/**
+ * Fuente basada en {@link SplittableRandom}. No es segura entre hilos:
+ * cada hilo debe usar su propia fuente, obtenida con {@link #split()}.
+ */
+public final class SplittableRandomSource implements RandomSource {
+
+    private final SplittableRandom random;
+
+    public SplittableRandomSource() {
+        this(new SplittableRandom());
+    }
+
+    private SplittableRandomSource(SplittableRandom random) {
+        this.random = random;
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return random.nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return new SplittableRandomSource(random.split());
+    }
+}
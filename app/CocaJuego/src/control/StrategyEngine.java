@@ -0,0 +1,172 @@
+package control;
+
+import modelo.Embocada;
+
+/**
+ * Sugiere qué embocada conviene intentar según los tiros que le quedan al
+ * equipo y los puntos que le faltan para superar al líder.
+ *
+ * <p>La tabla se arma una sola vez con programación dinámica: la
+ * probabilidad de conseguir {@code n} puntos en {@code t} tiros es la mejor,
+ * entre todas las embocadas, de acertar y necesitar {@code n - puntos} en
+ * {@code t - 1} tiros, o fallar y seguir necesitando {@code n}. Cada fila
+ * reutiliza la anterior, así que armarla cuesta tiros × puntos × embocadas
+ * y después cada consulta es leer una posición.</p>
+ *
+ * <p>Es una aproximación de las reglas de {@link GameSession} en dos puntos:</p>
+ * <ul>
+ *   <li>Los tiros que le quedan al equipo se calculan con
+ *       {@link #throwsLeft}, suponiendo que cada tiro toma siempre los
+ *       mismos segundos. La sesión no fija ese tiempo: depende de la demora
+ *       del resultado y de lo que tarda el jugador en elegir, así que lo
+ *       indica quien maneja el reloj de la partida.</li>
+ *   <li>En la sesión, un empate en puntos lo gana el equipo con más
+ *       embocadas. La tabla no sigue las embocadas y pide superar al líder
+ *       por un punto, así que la probabilidad informada no cuenta los
+ *       empates que el equipo ganaría por embocadas y puede quedar un poco
+ *       por debajo de la real.</li>
+ * </ul>
+ *
+ * <p>Después de armada no cambia, así que se puede consultar desde
+ * cualquier hilo.</p>
+ */
+public class StrategyEngine {
+
+    private static final Embocada[] EMBOCADAS = Embocada.values();
+
+    private final int maxThrows;
+    private final int maxNeed;
+    // Posición t * (maxNeed + 1) + n: probabilidad y mejor embocada con t tiros y n puntos por conseguir
+    private final double[] win;
+    private final byte[] best;
+    private final Embocada bestExpected;
+
+    /**
+     * Arma la tabla.
+     *
+     * @param maxThrows mayor cantidad de tiros que se va a consultar
+     */
+    public StrategyEngine(int maxThrows) {
+        if (maxThrows < 0) {
+            throw new IllegalArgumentException("Los tiros no pueden ser negativos: " + maxThrows);
+        }
+        int maxPuntos = 0;
+        Embocada mejor = EMBOCADAS[0];
+        for (Embocada embocada : EMBOCADAS) {
+            maxPuntos = Math.max(maxPuntos, embocada.getPoints());
+            if (expected(embocada) > expected(mejor)) {
+                mejor = embocada;
+            }
+        }
+        this.maxThrows = maxThrows;
+        this.maxNeed = Math.multiplyExact(maxThrows, maxPuntos);
+        this.bestExpected = mejor;
+
+        int ancho = maxNeed + 1;
+        this.win = new double[Math.multiplyExact(maxThrows + 1, ancho)];
+        this.best = new byte[win.length];
+        build(ancho);
+    }
+
+    private void build(int ancho) {
+        // Sin tiros solo se "consigue" lo que ya no hace falta
+        win[0] = 1;
+        best[0] = (byte) bestExpected.ordinal();
+        for (int n = 1; n < ancho; n++) {
+            best[n] = (byte) bestExpected.ordinal();
+        }
+
+        for (int t = 1; t <= maxThrows; t++) {
+            int fila = t * ancho;
+            int anterior = fila - ancho;
+            win[fila] = 1;
+            best[fila] = (byte) bestExpected.ordinal();
+            for (int n = 1; n < ancho; n++) {
+                double seguir = win[anterior + n];
+                double mejor = -1;
+                int eleccion = bestExpected.ordinal();
+                for (Embocada embocada : EMBOCADAS) {
+                    double p = embocada.getProbability() / 100.0;
+                    double valor = p * win[anterior + Math.max(0, n - embocada.getPoints())] + (1 - p) * seguir;
+                    // En un empate gana la de más puntos esperados
+                    if (valor > mejor + 1e-12
+                            || (valor > mejor - 1e-12 && expected(embocada) > expected(EMBOCADAS[eleccion]))) {
+                        mejor = Math.max(mejor, valor);
+                        eleccion = embocada.ordinal();
+                    }
+                }
+                win[fila + n] = mejor;
+                best[fila + n] = (byte) eleccion;
+            }
+        }
+    }
+
+    /**
+     * @param throwsLeft tiros que le quedan al equipo
+     * @param deficit puntos que le faltan para superar al líder; 0 o menos si ya lo supera
+     * @return embocada que da más probabilidad de superarlo; si ya lo supera o
+     *         no puede alcanzarlo, la de más puntos esperados
+     */
+    public Embocada suggest(int throwsLeft, int deficit) {
+        checkThrows(throwsLeft);
+        if (deficit <= 0 || deficit > maxNeed) {
+            return bestExpected;
+        }
+        return EMBOCADAS[best[throwsLeft * (maxNeed + 1) + deficit]];
+    }
+
+    /**
+     * @param throwsLeft tiros que le quedan al equipo
+     * @param deficit puntos que le faltan para superar al líder
+     * @return probabilidad de conseguirlos eligiendo siempre la sugerencia
+     */
+    public double winProbability(int throwsLeft, int deficit) {
+        checkThrows(throwsLeft);
+        if (deficit <= 0) {
+            return 1;
+        }
+        if (deficit > maxNeed) {
+            return 0;
+        }
+        return win[throwsLeft * (maxNeed + 1) + deficit];
+    }
+
+    /**
+     * @return embocada con más puntos esperados por tiro
+     */
+    public Embocada getBestExpected() {
+        return bestExpected;
+    }
+
+    public int getMaxThrows() {
+        return maxThrows;
+    }
+
+    /**
+     * Tiros que le quedan a un equipo en su turno.
+     *
+     * @param segundosRestantes segundos que le quedan al jugador actual
+     * @param jugadoresDespues jugadores del equipo que todavía no tiraron
+     * @param tiempoPorJugador segundos de cada jugador
+     * @param segundosPorIntento segundos que se supone que toma cada tiro, positivo
+     * @return tiros que alcanza a hacer el equipo
+     */
+    public static int throwsLeft(int segundosRestantes, int jugadoresDespues, int tiempoPorJugador,
+                                 int segundosPorIntento) {
+        if (segundosPorIntento <= 0) {
+            throw new IllegalArgumentException("Los segundos por intento deben ser positivos: " + segundosPorIntento);
+        }
+        return Math.max(0, segundosRestantes) / segundosPorIntento
+                + jugadoresDespues * (tiempoPorJugador / segundosPorIntento);
+    }
+
+    private void checkThrows(int throwsLeft) {
+        if (throwsLeft < 0 || throwsLeft > maxThrows) {
+            throw new IllegalArgumentException("La tabla llega hasta " + maxThrows + " tiros: " + throwsLeft);
+        }
+    }
+
+    private static double expected(Embocada embocada) {
+        return embocada.getPoints() * (double) embocada.getProbability();
+    }
+}
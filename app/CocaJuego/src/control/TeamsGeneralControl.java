@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import modelo.Player;
+import modelo.PlayerCodeIndex;
 import modelo.Team;
 
 public class TeamsGeneralControl {
@@ -32,24 +33,31 @@ public class TeamsGeneralControl {
         return players;
     }
 
+    /**
+     * Valida el PIN y deja en el equipo solo los jugadores cuyos códigos
+     * se ingresaron, en el orden en que se ingresaron.
+     *
+     * @param team equipo a validar
+     * @param codes códigos ingresados
+     * @param pin PIN ingresado
+     * @return el mismo equipo con los jugadores presentes, o null si el PIN no coincide
+     */
     public Team validateTeam(Team team, List<Integer> codes, int pin) {
-    if (team.getPin() != pin) return null;
+        if (team.getPin() != pin) return null;
 
-    // Guardamos los jugadores originales ANTES de limpiar
-    List<Player> original = new ArrayList<>(team.getPlayers());
-    team.clearPlayers();
+        // Índice de los jugadores originales ANTES de limpiar
+        PlayerCodeIndex plantel = PlayerCodeIndex.of(team);
+        team.clearPlayers();
 
-    for (Integer code : codes) {
-        for (Player player : original) {  // ← iteramos la copia, no la lista vacía
-            if (player.getCode() == code) {
+        for (int code : codes) {
+            Player player = plantel.getPlayer(code);
+            if (player != null) {
                 team.addPlayer(player);
+                plantel.remove(code);   // un código repetido no agrega dos veces al jugador
             }
         }
-    }
-
-    return team;
-}
 
-    
+        return team;
+    }
 
 }
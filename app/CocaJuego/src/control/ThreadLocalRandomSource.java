@@ -0,0 +1,25 @@
+package control;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fuente basada en {@link ThreadLocalRandom}: cada hilo usa su propio
+ * generador, así que una sola instancia sirve para todos.
+ */
+public final class ThreadLocalRandomSource implements RandomSource {
+
+    static final ThreadLocalRandomSource INSTANCE = new ThreadLocalRandomSource();
+
+    private ThreadLocalRandomSource() {
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        return ThreadLocalRandom.current().nextInt(bound);
+    }
+
+    @Override
+    public RandomSource split() {
+        return this;
+    }
+}
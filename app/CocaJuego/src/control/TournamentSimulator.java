@@ -0,0 +1,202 @@
+package control;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import modelo.Embocada;
+
+/**
+ * Simula partidas completas sin interfaz, para probar valores de
+ * {@link Embocada} y tiempos por jugador antes de un evento.
+ *
+ * <p>Cada partida sigue las reglas de {@link GameSession}: los equipos
+ * juegan en orden, cada jugador tira durante su tiempo y gana el de más
+ * puntos (desempate por embocadas y después por orden). Se supone que un
+ * jugador alcanza a hacer un tiro cada {@code segundosPorIntento}.</p>
+ *
+ * <p>La estrategia de un equipo dice con qué peso elige cada embocada. La
+ * elección y el acierto se juntan en un solo {@link EmbocadaSampler} por
+ * equipo, así que cada tiro cuesta un número al azar.</p>
+ *
+ * <p>Las partidas se reparten en un {@link ForkJoinPool}. Cada tarea hoja
+ * tiene su propia fuente de azar, partida con {@link RandomSource#split()}
+ * antes de lanzarla, y su propio {@link SimulationResult}; los resultados se
+ * suman al juntar las tareas. Con una fuente con semilla, la simulación da
+ * lo mismo sin importar cuántos hilos haya.</p>
+ */
+public class TournamentSimulator {
+
+    /** Partidas que simula una tarea sin dividirse. */
+    private static final int LOTE = 16384;
+
+    // Puntos y embocadas de cada resultado de EmbocadaSampler, corrido en 1 para que MISS sea 0
+    private static final int[] PUNTOS = new int[Embocada.values().length + 1];
+    private static final int[] ACIERTOS = new int[Embocada.values().length + 1];
+
+    static {
+        for (Embocada embocada : Embocada.values()) {
+            PUNTOS[embocada.ordinal() + 1] = embocada.getPoints();
+            ACIERTOS[embocada.ordinal() + 1] = 1;
+        }
+    }
+
+    private final List<Map<Embocada, Integer>> strategies;
+    private final int playersPerTeam;
+    private final int throwsPerPlayer;
+    private final int maxPoints;
+
+    /**
+     * @param strategies peso con que cada equipo elige cada embocada, en el orden de juego
+     * @param playersPerTeam jugadores por equipo
+     * @param throwsPerPlayer tiros que alcanza a hacer cada jugador en su tiempo
+     */
+    public TournamentSimulator(List<Map<Embocada, Integer>> strategies, int playersPerTeam, int throwsPerPlayer) {
+        if (strategies.size() < 2) {
+            throw new IllegalArgumentException("Se necesitan al menos 2 equipos");
+        }
+        if (playersPerTeam <= 0 || throwsPerPlayer <= 0) {
+            throw new IllegalArgumentException("Jugadores y tiros deben ser positivos");
+        }
+        this.strategies = new ArrayList<>(strategies);
+        this.playersPerTeam = playersPerTeam;
+        this.throwsPerPlayer = throwsPerPlayer;
+
+        int maxEmbocada = 0;
+        for (Embocada embocada : Embocada.values()) {
+            maxEmbocada = Math.max(maxEmbocada, embocada.getPoints());
+        }
+        this.maxPoints = Math.multiplyExact(Math.multiplyExact(playersPerTeam, throwsPerPlayer), maxEmbocada);
+    }
+
+    /**
+     * Estrategia de un equipo que siempre elige la misma embocada.
+     *
+     * @param embocada embocada elegida
+     * @return pesos de la estrategia
+     */
+    public static Map<Embocada, Integer> always(Embocada embocada) {
+        Map<Embocada, Integer> weights = new EnumMap<>(Embocada.class);
+        weights.put(embocada, 1);
+        return weights;
+    }
+
+    /**
+     * Tiros que alcanza a hacer un jugador en su tiempo.
+     *
+     * @param tiempoPorJugador segundos por jugador
+     * @param segundosPorIntento segundos que toma cada tiro
+     * @return tiros por jugador, al menos 1
+     */
+    public static int throwsPerPlayer(int tiempoPorJugador, int segundosPorIntento) {
+        return Math.max(1, tiempoPorJugador / segundosPorIntento);
+    }
+
+    /**
+     * Simula partidas en el pool común con una semilla: la misma semilla da
+     * el mismo resultado.
+     *
+     * @param matches cantidad de partidas
+     * @param seed semilla de la simulación
+     * @return resultados acumulados
+     */
+    public SimulationResult run(long matches, long seed) {
+        return run(matches, RandomSource.seeded(seed), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simula partidas.
+     *
+     * @param matches cantidad de partidas
+     * @param random fuente de azar de la que se parten las de cada tarea
+     * @param pool pool donde se reparten las partidas
+     * @return resultados acumulados
+     */
+    public SimulationResult run(long matches, RandomSource random, ForkJoinPool pool) {
+        EmbocadaSampler[] samplers = new EmbocadaSampler[strategies.size()];
+        for (int t = 0; t < samplers.length; t++) {
+            samplers[t] = samplerFor(strategies.get(t), random);
+        }
+        return pool.invoke(new Lote(matches, samplers));
+    }
+
+    /**
+     * Junta la elección de embocada y su acierto en un solo sorteo: cada
+     * embocada pesa lo que se elige por su probabilidad de acierto, y fallar
+     * pesa lo que se elige por la probabilidad de errar.
+     */
+    private static EmbocadaSampler samplerFor(Map<Embocada, Integer> strategy, RandomSource random) {
+        Map<Embocada, Integer> weights = new EnumMap<>(Embocada.class);
+        int fallo = 0;
+        for (Map.Entry<Embocada, Integer> entry : strategy.entrySet()) {
+            Embocada embocada = entry.getKey();
+            int eleccion = entry.getValue();
+            weights.put(embocada, Math.multiplyExact(eleccion, embocada.getProbability()));
+            fallo = Math.addExact(fallo, Math.multiplyExact(eleccion, 100 - embocada.getProbability()));
+        }
+        return new EmbocadaSampler(weights, fallo, random);
+    }
+
+    /** Parte de las partidas, con sus propias fuentes de azar. */
+    private class Lote extends RecursiveTask<SimulationResult> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final long matches;
+        private final EmbocadaSampler[] samplers;
+
+        Lote(long matches, EmbocadaSampler[] samplers) {
+            this.matches = matches;
+            this.samplers = samplers;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (matches <= LOTE) {
+                return simulate();
+            }
+            // Las fuentes de las dos mitades se parten aquí, en orden, para
+            // que el resultado no dependa de qué hilo corre cada una
+            long mitad = matches / 2;
+            Lote izquierda = new Lote(mitad, split(samplers));
+            Lote derecha = new Lote(matches - mitad, split(samplers));
+            izquierda.fork();
+            return derecha.compute().merge(izquierda.join());
+        }
+
+        private SimulationResult simulate() {
+            SimulationResult result = new SimulationResult(samplers.length, maxPoints);
+            int[] puntos = new int[samplers.length];
+            int[] embocadas = new int[samplers.length];
+            int tiros = playersPerTeam * throwsPerPlayer;
+            for (long m = 0; m < matches; m++) {
+                for (int t = 0; t < samplers.length; t++) {
+                    EmbocadaSampler sampler = samplers[t];
+                    int p = 0;
+                    int e = 0;
+                    // Sin ramas: acertar o fallar es impredecible
+                    for (int k = 0; k < tiros; k++) {
+                        int resultado = sampler.sample() + 1;
+                        p += PUNTOS[resultado];
+                        e += ACIERTOS[resultado];
+                    }
+                    puntos[t] = p;
+                    embocadas[t] = e;
+                }
+                result.record(puntos, embocadas);
+            }
+            return result;
+        }
+    }
+
+    private static EmbocadaSampler[] split(EmbocadaSampler[] samplers) {
+        EmbocadaSampler[] copia = new EmbocadaSampler[samplers.length];
+        for (int t = 0; t < samplers.length; t++) {
+            copia[t] = samplers[t].split();
+        }
+        return copia;
+    }
+}
@@ -1,11 +1,19 @@
 package control;
 
+import java.awt.GridLayout;
 import java.io.File;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 import modelo.Embocada;
+import modelo.Leaderboard;
 import modelo.Team;
+import persistence.ExportFormat;
+import persistence.ImportReport;
+import persistence.SaveSlot;
 import Vista.MainFrame;
 import Vista.dialogs.TeamValidationDialog;
 import Vista.panels.*;
@@ -17,6 +25,12 @@ import Vista.panels.*;
  */
 public class VistaControl {
 
+    // Espera antes de mostrar el resultado de un intento
+    private static final int DEMORA_RESULTADO_MS = 1000;
+    // Segundos que se estima que toma cada tiro para las sugerencias: la
+    // espera del resultado más lo que tarda el jugador en elegir
+    private static final int SEGUNDOS_POR_INTENTO = 3;
+
     private MainFrame mainFrame;
     private PrincipalControl principalControl;
     private Timer gameTimer;
@@ -29,6 +43,12 @@ public class VistaControl {
         init();
         mainFrame.setVisible(true);
         this.principalControl = principalControl;
+
+        String aviso = principalControl.getStartupWarning();
+        if (aviso != null) {
+            JOptionPane.showMessageDialog(mainFrame,
+                aviso, "Archivo de ganadores", JOptionPane.WARNING_MESSAGE);
+        }
     }
 
     /**
@@ -52,7 +72,15 @@ public class VistaControl {
         );
 
         home.getBtnCargarUltimo().addActionListener(e -> {
-            String error = principalControl.loadLastSession();
+            String error;
+            List<SaveSlot> slots = principalControl.getSaveSlots();
+            if (!principalControl.hasUnfinishedSession() && slots.size() > 1) {
+                SaveSlot elegido = chooseSaveSlot(slots);
+                if (elegido == null) return;
+                error = principalControl.loadSaveSlot(elegido);
+            } else {
+                error = principalControl.loadLastSession();
+            }
             if (error != null) {
                 JOptionPane.showMessageDialog(mainFrame,
                     error, "Sin datos", JOptionPane.WARNING_MESSAGE);
@@ -61,6 +89,131 @@ public class VistaControl {
                 startGame();
             }
         });
+
+        home.getBtnPartidasGuardadas().addActionListener(e ->
+            chooseSaveSlotLimit()
+        );
+
+        home.getBtnExportarGanadores().addActionListener(e ->
+            exportWinners()
+        );
+    }
+
+    /**
+     * Pregunta cuántas partidas guardadas se conservan. Por defecto todas;
+     * con un límite, al guardar se borran las más antiguas.
+     */
+    private void chooseSaveSlotLimit() {
+        String[] opciones = {"Todas", "5", "10", "20", "50"};
+        int actual = principalControl.getSaveSlotLimit();
+        String seleccion = actual == 0 ? opciones[0] : Integer.toString(actual);
+        Object elegido = JOptionPane.showInputDialog(mainFrame,
+            "¿Cuántas partidas guardadas se conservan?\n"
+                + "Con un límite, al guardar una partida se borran\n"
+                + "las más antiguas que lo superen.",
+            "Partidas guardadas", JOptionPane.PLAIN_MESSAGE, null, opciones, seleccion);
+        if (elegido == null) return;
+
+        int max = opciones[0].equals(elegido) ? 0 : Integer.parseInt((String) elegido);
+        String error = principalControl.setSaveSlotLimit(max);
+        if (error != null) {
+            JOptionPane.showMessageDialog(mainFrame,
+                error, "Partidas guardadas", JOptionPane.WARNING_MESSAGE);
+        }
+    }
+
+    /**
+     * Pide el formato y los filtros de la exportación y el archivo de salida,
+     * y exporta los ganadores en el hilo de persistencia.
+     * Equipo o claves vacíos exportan todo.
+     */
+    private void exportWinners() {
+        String[] formatos = {"CSV", "Líneas JSON"};
+        JComboBox<String> cmbFormato = new JComboBox<>(formatos);
+        JTextField txtEquipo = new JTextField(16);
+        JTextField txtDesde = new JTextField(8);
+        JTextField txtHasta = new JTextField(8);
+        JPanel filtros = new JPanel(new GridLayout(0, 2, 8, 6));
+        filtros.add(new JLabel("Formato:"));
+        filtros.add(cmbFormato);
+        filtros.add(new JLabel("Equipo (vacío = todos):"));
+        filtros.add(txtEquipo);
+        filtros.add(new JLabel("Desde el registro:"));
+        filtros.add(txtDesde);
+        filtros.add(new JLabel("Hasta el registro:"));
+        filtros.add(txtHasta);
+        if (JOptionPane.showConfirmDialog(mainFrame, filtros, "Exportar ganadores",
+                JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE) != JOptionPane.OK_OPTION) return;
+
+        long desde;
+        long hasta;
+        try {
+            desde = txtDesde.getText().isBlank() ? 1 : Long.parseLong(txtDesde.getText().trim());
+            hasta = txtHasta.getText().isBlank() ? Long.MAX_VALUE : Long.parseLong(txtHasta.getText().trim());
+        } catch (NumberFormatException ex) {
+            JOptionPane.showMessageDialog(mainFrame,
+                "Los registros deben ser números enteros.", "Exportar ganadores", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (desde < 1 || desde > hasta) {
+            JOptionPane.showMessageDialog(mainFrame,
+                "El rango de registros no es válido.", "Exportar ganadores", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        String equipo = txtEquipo.getText().trim();
+        ExportFormat formato = cmbFormato.getSelectedIndex() == 0 ? ExportFormat.CSV : ExportFormat.JSON_LINES;
+
+        JFileChooser fileChooser = new JFileChooser(new File(".").getAbsoluteFile());
+        fileChooser.setDialogTitle("Guardar ganadores como");
+        fileChooser.setSelectedFile(new File(formato == ExportFormat.CSV ? "ganadores.csv" : "ganadores.jsonl"));
+        if (fileChooser.showSaveDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return;
+        File destino = fileChooser.getSelectedFile();
+        if (destino.exists() && JOptionPane.showConfirmDialog(mainFrame,
+                destino.getName() + " ya existe. ¿Reemplazarlo?", "Exportar ganadores",
+                JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) return;
+
+        JButton boton = mainFrame.getHomePanel().getBtnExportarGanadores();
+        boton.setEnabled(false);
+        principalControl.exportWinners(destino, formato, equipo.isEmpty() ? null : equipo, desde, hasta)
+            .thenAccept(exportados -> SwingUtilities.invokeLater(() -> {
+                boton.setEnabled(true);
+                if (exportados == null) {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "No se pudieron exportar los ganadores.", "Error", JOptionPane.ERROR_MESSAGE);
+                } else {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        exportados + " registros exportados a " + destino.getName() + ".",
+                        "Exportar ganadores", JOptionPane.INFORMATION_MESSAGE);
+                }
+            }));
+    }
+
+    /**
+     * Muestra las partidas guardadas, con los datos del manifiesto,
+     * para elegir cuál cargar.
+     *
+     * @return partida elegida, o null si se canceló
+     */
+    private SaveSlot chooseSaveSlot(List<SaveSlot> slots) {
+        SimpleDateFormat formato = new SimpleDateFormat("dd/MM/yyyy HH:mm");
+        String[] opciones = new String[slots.size()];
+        for (int i = 0; i < slots.size(); i++) {
+            SaveSlot slot = slots.get(i);
+            opciones[i] = formato.format(new Date(slot.getTimestamp()))
+                + "  —  " + slot.getTeamCount() + " equipos";
+        }
+        int limite = principalControl.getSaveSlotLimit();
+        String retencion = limite == 0
+            ? "Se conservan todas las partidas guardadas."
+            : "Se conservan las " + limite + " partidas más recientes.";
+        Object elegido = JOptionPane.showInputDialog(mainFrame,
+            "Selecciona la partida a cargar:\n" + retencion, "Cargar partida",
+            JOptionPane.PLAIN_MESSAGE, null, opciones, opciones[0]);
+        // Se compara la referencia: dos partidas pueden mostrarse con el mismo texto
+        for (int i = 0; i < opciones.length; i++) {
+            if (opciones[i] == elegido) return slots.get(i);
+        }
+        return null;
     }
 
     // ─── MENU TORNEO PANEL ───────────────────────────────────────────────────
@@ -81,12 +234,26 @@ public class VistaControl {
             loadTeamFromFile()
         );
 
+        menu.getBtnImportarEquipos().addActionListener(e ->
+            importTeams()
+        );
+
         menu.getBtnEliminarEquipo().addActionListener(e -> {
             int idx = menu.removeSelectedTeam();
             if (idx != -1) principalControl.removeTeam(idx);
         });
 
         menu.getBtnIniciarJuego().addActionListener(e -> {
+            String semilla = menu.getSemilla();
+            if (!semilla.isEmpty()) {
+                try {
+                    principalControl.setTournamentSeed(Long.parseLong(semilla));
+                } catch (NumberFormatException ex) {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "La semilla debe ser un número entero.", "Semilla", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+            }
             tiempoPorJugador = menu.getTiempoSegundos() / 3;
             principalControl.initSession();
             startGame();
@@ -129,7 +296,7 @@ public class VistaControl {
         if (seleccionada == null) return;
         game.setEmbocadasEnabled(false);
         game.setBtnIntentarEnabled(false);
-        delayTimer = new Timer(1000, ev -> onIntentar(seleccionada));
+        delayTimer = new Timer(DEMORA_RESULTADO_MS, ev -> onIntentar(seleccionada));
         delayTimer.setRepeats(false);
         delayTimer.start();
         });
@@ -149,6 +316,7 @@ public class VistaControl {
     gameTimer = new Timer(1000, e -> {
         tiempo[0]--;
         game.updateTimer(tiempo[0]);
+        game.updateSuggestion(principalControl.getSuggestion(tiempo[0], tiempoPorJugador, SEGUNDOS_POR_INTENTO));
 
         if (tiempo[0] <= 0) {
                 gameTimer.stop();
@@ -179,7 +347,75 @@ public class VistaControl {
 
     // ─── FLUJO DE CARGA ──────────────────────────────────────────────────────
 
+    private void importTeams() {
+        JFileChooser fileChooser = new JFileChooser(new File(".").getAbsoluteFile());
+        fileChooser.setDialogTitle("Seleccionar archivo o carpeta de equipos");
+        fileChooser.setFileSelectionMode(JFileChooser.FILES_AND_DIRECTORIES);
+
+        if (fileChooser.showOpenDialog(mainFrame) != JFileChooser.APPROVE_OPTION) return;
+
+        JButton boton = mainFrame.getMenuTPanel().getBtnImportarEquipos();
+        boton.setEnabled(false);
+        principalControl.importTeams(fileChooser.getSelectedFile()).thenAccept(report ->
+            SwingUtilities.invokeLater(() -> {
+                boton.setEnabled(true);
+                showImportReport(report);
+            })
+        );
+    }
+
+    private void showImportReport(ImportReport report) {
+        if (report == null) {
+            JOptionPane.showMessageDialog(mainFrame,
+                "No se pudo leer el origen seleccionado.", "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        StringBuilder mensaje = new StringBuilder()
+            .append(report.getTeams().size()).append(" equipos guardados.");
+        if (report.hasProblems()) {
+            appendEntries(mensaje, report.getProblems(), " entradas descartadas:");
+        }
+        if (report.hasWarnings()) {
+            appendEntries(mensaje, report.getWarnings(), " equipos con avisos:");
+        }
+        JOptionPane.showMessageDialog(mainFrame, mensaje.toString(), "Importación",
+            report.hasProblems() || report.hasWarnings()
+                ? JOptionPane.WARNING_MESSAGE : JOptionPane.INFORMATION_MESSAGE);
+    }
+
+    private static void appendEntries(StringBuilder mensaje, List<ImportReport.Problem> entradas, String titulo) {
+        mensaje.append("\n").append(entradas.size()).append(titulo);
+        int mostrar = Math.min(entradas.size(), 10);
+        for (int i = 0; i < mostrar; i++) {
+            mensaje.append("\n• ").append(entradas.get(i));
+        }
+        if (entradas.size() > mostrar) {
+            mensaje.append("\n… y ").append(entradas.size() - mostrar).append(" más");
+        }
+    }
+
     private void loadTeamFromFile() {
+        List<String> guardados = principalControl.getSavedTeamNames();
+        if (!guardados.isEmpty()) {
+            String otroArchivo = "Otro archivo .properties...";
+            List<String> opciones = new ArrayList<>(guardados);
+            opciones.add(otroArchivo);
+            Object elegido = JOptionPane.showInputDialog(mainFrame,
+                "Equipo guardado:", "Cargar equipo", JOptionPane.PLAIN_MESSAGE,
+                null, opciones.toArray(), opciones.get(0));
+            if (elegido == null) return;
+            if (elegido != otroArchivo) {
+                Team team = principalControl.findSavedTeam((String) elegido);
+                if (team == null) {
+                    JOptionPane.showMessageDialog(mainFrame,
+                        "Error al leer el equipo.", "Error", JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                showValidationDialog(team);
+                return;
+            }
+        }
+
         File carpeta = new File("Specs/data/teams");
         if (!carpeta.exists()) carpeta.mkdirs();
         JFileChooser fileChooser = new JFileChooser(carpeta.getAbsoluteFile());
@@ -284,6 +520,7 @@ public class VistaControl {
             "-"
         );
         game.updateStandings(principalControl.getStandings());
+        game.updateSuggestion(principalControl.getSuggestion(tiempoPorJugador, tiempoPorJugador, SEGUNDOS_POR_INTENTO));
         game.setEmbocadasEnabled(true);
         game.setBtnIntentarEnabled(false);
         game.setBtnIniciarRondaVisible(true);
@@ -309,15 +546,25 @@ public class VistaControl {
     private void finishGame() {
         if (gameTimer != null) gameTimer.stop();
 
-        int victorias = principalControl.finishGame();
+        // El guardado sigue en segundo plano; el historial se completa al terminar
+        CompletableFuture<Integer> victorias = principalControl.finishGame();
+        CompletableFuture<Leaderboard> historial = principalControl.getLeaderboard();
 
         ResultsPanel results = mainFrame.getResultsPanel();
         results.showWinner(
             principalControl.getWinner(),
-            principalControl.getWinnerStats(),
-            victorias
+            principalControl.getWinnerStats()
         );
+        results.showSeed(principalControl.getTournamentSeed());
         results.showFinalTable(principalControl.getStandings());
+        results.showLeaderboardLoading();
         mainFrame.showPanel(MainFrame.RESULTS_PANEL);
+
+        victorias.thenAccept(v ->
+            SwingUtilities.invokeLater(() -> results.showWins(v))
+        );
+        historial.thenAccept(l ->
+            SwingUtilities.invokeLater(() -> results.showLeaderboard(l))
+        );
     }
 }
\ No newline at end of file
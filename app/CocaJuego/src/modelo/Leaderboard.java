@@ -0,0 +1,110 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Tabla histórica de campeones construida a partir del archivo de ganadores.
+ * Permite consultar los mejores equipos por victorias, por mejor puntaje
+ * y por puntaje promedio, y los jugadores que más veces han ganado.
+ */
+public class Leaderboard {
+
+    /** Resumen histórico de un equipo. */
+    public static class TeamEntry {
+        private final String name;
+        private final int wins;
+        private final int bestScore;
+        private final long totalScore;
+
+        public TeamEntry(String name, int wins, int bestScore, long totalScore) {
+            this.name = name;
+            this.wins = wins;
+            this.bestScore = bestScore;
+            this.totalScore = totalScore;
+        }
+
+        public String getName() { return name; }
+        public int getWins() { return wins; }
+        public int getBestScore() { return bestScore; }
+        public double getAverageScore() { return wins == 0 ? 0 : (double) totalScore / wins; }
+    }
+
+    /** Cantidad de victorias de un jugador. */
+    public static class PlayerEntry {
+        private final String name;
+        private final int wins;
+
+        public PlayerEntry(String name, int wins) {
+            this.name = name;
+            this.wins = wins;
+        }
+
+        public String getName() { return name; }
+        public int getWins() { return wins; }
+    }
+
+    private final List<TeamEntry> teams;
+    private final List<PlayerEntry> players;
+    private final long totalRecords;
+
+    public Leaderboard(List<TeamEntry> teams, List<PlayerEntry> players, long totalRecords) {
+        this.teams = teams;
+        this.players = players;
+        this.totalRecords = totalRecords;
+    }
+
+    /**
+     * Retorna los equipos con más victorias.
+     *
+     * @param n cantidad máxima de equipos
+     * @return equipos ordenados por victorias
+     */
+    public List<TeamEntry> topByWins(int n) {
+        return top(teams, Comparator.comparingInt(TeamEntry::getWins)
+                .thenComparingInt(TeamEntry::getBestScore), n);
+    }
+
+    /**
+     * Retorna los equipos con el mejor puntaje en una sola partida.
+     *
+     * @param n cantidad máxima de equipos
+     * @return equipos ordenados por mejor puntaje
+     */
+    public List<TeamEntry> topByBestScore(int n) {
+        return top(teams, Comparator.comparingInt(TeamEntry::getBestScore)
+                .thenComparingInt(TeamEntry::getWins), n);
+    }
+
+    /**
+     * Retorna los equipos con mejor puntaje promedio en sus victorias.
+     *
+     * @param n cantidad máxima de equipos
+     * @return equipos ordenados por puntaje promedio
+     */
+    public List<TeamEntry> topByAverageScore(int n) {
+        return top(teams, Comparator.comparingDouble(TeamEntry::getAverageScore)
+                .thenComparingInt(TeamEntry::getWins), n);
+    }
+
+    /**
+     * Retorna los jugadores que más veces han estado en el equipo ganador.
+     *
+     * @param n cantidad máxima de jugadores
+     * @return jugadores ordenados por victorias
+     */
+    public List<PlayerEntry> topPlayers(int n) {
+        return top(players, Comparator.comparingInt(PlayerEntry::getWins), n);
+    }
+
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    private static <T> List<T> top(List<T> list, Comparator<T> comparator, int n) {
+        List<T> ordenada = new ArrayList<>(list);
+        ordenada.sort(comparator.reversed());
+        return ordenada.subList(0, Math.min(n, ordenada.size()));
+    }
+}
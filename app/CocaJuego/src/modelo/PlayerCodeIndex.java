@@ -0,0 +1,229 @@
+package modelo;
+
+import java.util.Arrays;
+
+/**
+ * Índice de jugadores por código, con claves {@code int} sin boxing:
+ * direccionamiento abierto con sondeo lineal sobre arreglos paralelos.
+ * Cada código apunta al jugador y al equipo en que está inscrito.
+ *
+ * <p>Buscar, agregar y quitar un código cuesta O(1) en promedio. No es
+ * seguro entre hilos; para compartirlo se publica una copia que ya no se
+ * modifica.</p>
+ */
+public class PlayerCodeIndex {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private int[] codes;
+    private Player[] players;   // null marca una posición libre
+    private Team[] teams;
+    private int mask;
+    private int size;
+
+    public PlayerCodeIndex() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expected cantidad de códigos que se espera guardar
+     */
+    public PlayerCodeIndex(int expected) {
+        // Se mantiene al menos la mitad de las posiciones libres
+        int capacity = Integer.highestOneBit(Math.max(expected, MIN_CAPACITY / 2) * 2 - 1) << 1;
+        allocate(capacity);
+    }
+
+    /**
+     * Copia otro índice. Los cambios en la copia no afectan al original.
+     *
+     * @param other índice a copiar
+     */
+    public PlayerCodeIndex(PlayerCodeIndex other) {
+        this.codes = other.codes.clone();
+        this.players = other.players.clone();
+        this.teams = other.teams.clone();
+        this.mask = other.mask;
+        this.size = other.size;
+    }
+
+    /**
+     * Crea un índice con los jugadores de un equipo.
+     *
+     * @param team equipo a indexar
+     * @return índice con un código por jugador
+     */
+    public static PlayerCodeIndex of(Team team) {
+        PlayerCodeIndex index = new PlayerCodeIndex(team.getCantPlayers());
+        index.addTeam(team);
+        return index;
+    }
+
+    /**
+     * Indexa todos los jugadores de un equipo. Si un código ya estaba, pasa
+     * a apuntar a este equipo.
+     *
+     * @param team equipo a indexar
+     */
+    public void addTeam(Team team) {
+        for (Player player : team.getPlayers()) {
+            put(player.getCode(), player, team);
+        }
+    }
+
+    /**
+     * Quita los códigos de un equipo que todavía apuntan a él.
+     *
+     * @param team equipo a quitar
+     */
+    public void removeTeam(Team team) {
+        for (Player player : team.getPlayers()) {
+            int slot = find(player.getCode());
+            if (slot >= 0 && teams[slot] == team) {
+                delete(slot);
+            }
+        }
+    }
+
+    /**
+     * Asocia un código a un jugador y su equipo.
+     *
+     * @param code código del jugador
+     * @param player jugador
+     * @param team equipo del jugador
+     * @return jugador que tenía antes el código, o null
+     */
+    public Player put(int code, Player player, Team team) {
+        if (player == null) {
+            throw new IllegalArgumentException("El jugador no puede ser null");
+        }
+        int slot = slot(code);
+        while (players[slot] != null) {
+            if (codes[slot] == code) {
+                Player anterior = players[slot];
+                players[slot] = player;
+                teams[slot] = team;
+                return anterior;
+            }
+            slot = (slot + 1) & mask;
+        }
+        codes[slot] = code;
+        players[slot] = player;
+        teams[slot] = team;
+        if (++size * 2 > players.length) {
+            allocate(players.length * 2);
+        }
+        return null;
+    }
+
+    /**
+     * @param code código del jugador
+     * @return jugador con ese código, o null
+     */
+    public Player getPlayer(int code) {
+        int slot = find(code);
+        return slot >= 0 ? players[slot] : null;
+    }
+
+    /**
+     * @param code código del jugador
+     * @return equipo del jugador con ese código, o null
+     */
+    public Team getTeam(int code) {
+        int slot = find(code);
+        return slot >= 0 ? teams[slot] : null;
+    }
+
+    public boolean contains(int code) {
+        return find(code) >= 0;
+    }
+
+    /**
+     * @param code código a quitar
+     * @return true si estaba en el índice
+     */
+    public boolean remove(int code) {
+        int slot = find(code);
+        if (slot < 0) {
+            return false;
+        }
+        delete(slot);
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(players, null);
+        Arrays.fill(teams, null);
+        size = 0;
+    }
+
+    // ─── TABLA ───────────────────────────────────────────────────────────────
+
+    private int find(int code) {
+        int slot = slot(code);
+        while (players[slot] != null) {
+            if (codes[slot] == code) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Libera una posición y corre hacia atrás las entradas siguientes que
+     * quedarían inalcanzables, así no hacen falta marcas de borrado.
+     */
+    private void delete(int libre) {
+        players[libre] = null;
+        teams[libre] = null;
+        size--;
+        int actual = libre;
+        while (true) {
+            actual = (actual + 1) & mask;
+            if (players[actual] == null) {
+                return;
+            }
+            int ideal = slot(codes[actual]);
+            // La entrada se puede mover si su posición ideal no está entre libre y actual
+            boolean alcanzable = libre <= actual
+                    ? libre < ideal && ideal <= actual
+                    : libre < ideal || ideal <= actual;
+            if (!alcanzable) {
+                codes[libre] = codes[actual];
+                players[libre] = players[actual];
+                teams[libre] = teams[actual];
+                players[actual] = null;
+                teams[actual] = null;
+                libre = actual;
+            }
+        }
+    }
+
+    private int slot(int code) {
+        int h = code * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & mask;
+    }
+
+    private void allocate(int capacity) {
+        int[] viejosCodigos = codes;
+        Player[] viejosJugadores = players;
+        Team[] viejosEquipos = teams;
+        codes = new int[capacity];
+        players = new Player[capacity];
+        teams = new Team[capacity];
+        mask = capacity - 1;
+        size = 0;
+        if (viejosJugadores != null) {
+            for (int i = 0; i < viejosJugadores.length; i++) {
+                if (viejosJugadores[i] != null) {
+                    put(viejosCodigos[i], viejosJugadores[i], viejosEquipos[i]);
+                }
+            }
+        }
+    }
+}
@@ -6,6 +6,15 @@ public class TeamStats {
     private int attempts;
     private int embocadas;
 
+    public TeamStats() {
+    }
+
+    public TeamStats(int points, int attempts, int embocadas) {
+        this.points = points;
+        this.attempts = attempts;
+        this.embocadas = embocadas;
+    }
+
     public void addPoints(int p) {
         this.points += p;
     }
@@ -18,6 +27,15 @@ public class TeamStats {
         this.embocadas++;
     }
 
+    /**
+     * Suma de una vez los resultados de varios intentos.
+     */
+    public void add(int points, int attempts, int embocadas) {
+        this.points += points;
+        this.attempts += attempts;
+        this.embocadas += embocadas;
+    }
+
     public int getPoints() { return points; }
     public int getAttempts() { return attempts; }
     public int getEmbocadas() { return embocadas; }
@@ -0,0 +1,13 @@
+package persistence;
+
+/**
+ * Define cuándo se fuerza a disco lo escrito en el archivo de ganadores.
+ */
+public enum DurabilityPolicy {
+    /** No se fuerza; el sistema operativo decide cuándo escribir. */
+    NONE,
+    /** Se fuerza a disco después de cada registro. */
+    PER_RECORD,
+    /** Se fuerza a disco cada cierto número de registros. */
+    GROUP
+}
@@ -0,0 +1,11 @@
+package persistence;
+
+/**
+ * Formatos de texto en los que se puede exportar el archivo de ganadores.
+ */
+public enum ExportFormat {
+    /** Valores separados por comas, con una fila de encabezado. */
+    CSV,
+    /** Un objeto JSON por línea. */
+    JSON_LINES
+}
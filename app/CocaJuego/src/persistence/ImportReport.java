@@ -0,0 +1,68 @@
+package persistence;
+
+import java.util.Collections;
+import java.util.List;
+
+import modelo.Team;
+
+/**
+ * Resultado de una importación de equipos en lote: los equipos válidos,
+ * los problemas encontrados en las entradas que se descartaron y los avisos
+ * de las que se importaron con algún cambio.
+ */
+public class ImportReport {
+
+    /** Entrada descartada, o importada con un aviso. */
+    public static class Problem {
+        private final String source;
+        private final String entry;
+        private final String message;
+
+        Problem(String source, String entry, String message) {
+            this.source = source;
+            this.entry = entry;
+            this.message = message;
+        }
+
+        /** Archivo donde está la entrada. */
+        public String getSource() { return source; }
+
+        /** Entrada dentro del archivo (por ejemplo {@code "equipo3"}), o null si es el archivo entero. */
+        public String getEntry() { return entry; }
+
+        /** Motivo por el que se descartó, o aviso sobre lo que se cambió al importarla. */
+        public String getMessage() { return message; }
+
+        @Override
+        public String toString() {
+            return entry == null ? source + ": " + message
+                                 : source + " [" + entry + "]: " + message;
+        }
+    }
+
+    private final List<Team> teams;
+    private final List<Problem> problems;
+    private final List<Problem> warnings;
+
+    ImportReport(List<Team> teams, List<Problem> problems, List<Problem> warnings) {
+        this.teams = Collections.unmodifiableList(teams);
+        this.problems = Collections.unmodifiableList(problems);
+        this.warnings = Collections.unmodifiableList(warnings);
+    }
+
+    /** Equipos válidos, en el orden en que aparecen en los archivos. */
+    public List<Team> getTeams() { return teams; }
+
+    /** Entradas descartadas, en el orden en que aparecen en los archivos. */
+    public List<Problem> getProblems() { return problems; }
+
+    public boolean hasProblems() { return !problems.isEmpty(); }
+
+    /**
+     * Entradas importadas con algún cambio, por ejemplo un PIN asignado
+     * porque el archivo no lo tenía.
+     */
+    public List<Problem> getWarnings() { return warnings; }
+
+    public boolean hasWarnings() { return !warnings.isEmpty(); }
+}
@@ -0,0 +1,631 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+import modelo.Player;
+
+/**
+ * Versiones del formato del archivo de ganadores.
+ *
+ * <p>V1 no tiene encabezado; cada registro guarda los nombres con
+ * {@code writeChars} rellenos de espacios (352 bytes por registro).</p>
+ *
+ * <p>V2 empieza con un encabezado de 32 bytes (magic, versión, banderas,
+ * tamaño de registro, fecha de creación y clave base del segmento) y guarda
+ * los nombres en UTF-8 con un byte de longitud dentro de un espacio fijo,
+ * además de la fecha del torneo (164 bytes por registro):</p>
+ * <pre>
+ *  Campo              Tipo / Tamaño              Bytes
+ *  ─────────────────  ─────────────────────────  ─────
+ *  clave              long                           8
+ *  fecha              long (epoch en ms)             8
+ *  puntaje            int                            4
+ *  nombreEquipo       1 + 47 bytes UTF-8            48
+ *  nombreJugador1..3  3 × (1 + 31 bytes UTF-8)      96
+ *  ───────────────────────────────────────────────────
+ *  TOTAL                                           164
+ * </pre>
+ *
+ * <p>V3 usa el mismo encabezado y los mismos campos que V2 y agrega al final
+ * de cada registro un CRC32C de los 164 bytes anteriores (168 bytes por
+ * registro), para distinguir un registro íntegro de uno escrito a medias.</p>
+ *
+ * <p>En V2 y V3 los espacios de los nombres son más chicos que los de V1
+ * (47 y 31 bytes contra 50 y 40 caracteres), así que un nombre largo o con
+ * acentos se trunca y dos equipos que empiezan igual se confunden. V4 los
+ * agrandó a 1 + 200 y 1 + 160 bytes (708 bytes por registro), el doble que
+ * V1; solo se sigue leyendo.</p>
+ *
+ * <p>V5 vuelve a la distribución de V3 y agrega, antes del CRC, un
+ * {@code int} con el hash del nombre completo del equipo cuando no entra en
+ * su espacio (0 si entra), 172 bytes por registro: menos de la mitad que V1.
+ * El truncado queda marcado y la clave del equipo ({@link #teamKey(String)})
+ * incluye ese hash, así que dos equipos que solo difieren después del corte
+ * se cuentan por separado. Es el formato de los archivos nuevos, y un
+ * archivo activo en otro formato con encabezado se sella antes de
+ * agregarle registros.</p>
+ *
+ * <p>Los métodos sin sobrescribir implementan la distribución de V2 a V4
+ * según los espacios de cada versión; V1 los reemplaza todos.</p>
+ */
+enum LedgerFormat {
+
+    V1(1, 0, Winners.bytesForRegister, 0, 0, false) {
+        @Override
+        long writeHeader(FileChannel channel, long baseClave) {
+            if (baseClave != 0L) {
+                throw new IllegalArgumentException(this + " no admite clave base");
+            }
+            return 0L;
+        }
+
+        @Override
+        long baseClave(FileChannel channel) {
+            return 0L;
+        }
+
+        @Override
+        long createdAt(FileChannel channel) {
+            return -1L;
+        }
+
+        @Override
+        void encode(ByteBuffer buffer, long clave, long timestamp,
+                    String teamName, List<Player> players, int score) {
+            buffer.putLong(clave);
+            putChars(buffer, teamName, Winners.teamSize);
+            for (int i = 0; i < 3; i++) {
+                putChars(buffer, nameOf(players, i), Winners.playerSize);
+            }
+            buffer.putInt(score);
+        }
+
+        @Override
+        String storedTeamName(String nombre) {
+            return nombre.length() > Winners.teamSize ? nombre.substring(0, Winners.teamSize) : nombre;
+        }
+
+        @Override
+        String storedPlayerName(String nombre) {
+            return nombre.length() > Winners.playerSize ? nombre.substring(0, Winners.playerSize) : nombre;
+        }
+
+        @Override
+        long timestamp(ByteBuffer buffer, int base) {
+            return 0L;
+        }
+
+        @Override
+        int score(ByteBuffer buffer, int base) {
+            return buffer.getInt(base + recordSize() - Integer.BYTES);
+        }
+
+        @Override
+        String teamName(ByteBuffer buffer, int base) {
+            return getChars(buffer, base + Long.BYTES, Winners.teamSize);
+        }
+
+        @Override
+        String playerName(ByteBuffer buffer, int base, int player) {
+            int offset = base + Long.BYTES + Winners.teamSize * Character.BYTES
+                    + player * Winners.playerSize * Character.BYTES;
+            return getChars(buffer, offset, Winners.playerSize);
+        }
+
+        @Override
+        int utf8Slot(int base, int campo) {
+            return -1;
+        }
+
+        @Override
+        boolean teamMatches(ByteBuffer buffer, int base, String nombre) {
+            int offset = base + Long.BYTES;
+            int start = 0;
+            int end = Winners.teamSize;
+            while (start < end && buffer.getChar(offset + start * Character.BYTES) <= ' ') {
+                start++;
+            }
+            while (end > start && buffer.getChar(offset + (end - 1) * Character.BYTES) <= ' ') {
+                end--;
+            }
+            if (end - start != nombre.length()) {
+                return false;
+            }
+            for (int i = 0; i < nombre.length(); i++) {
+                if (!sameIgnoreCase(buffer.getChar(offset + (start + i) * Character.BYTES),
+                        nombre.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    },
+
+    V2(2, 32, 164, 48, 32, false),
+
+    V3(3, 32, 168, 48, 32, true),
+
+    V4(4, 32, 708, 201, 161, true) {
+        @Override
+        String storedTeamName(String nombre) {
+            return super.storedTeamName(chars(nombre, Winners.teamSize));
+        }
+
+        @Override
+        String storedPlayerName(String nombre) {
+            return super.storedPlayerName(chars(nombre, Winners.playerSize));
+        }
+    },
+
+    V5(5, 32, 172, 48, 32, true) {
+        @Override
+        void encodeExtra(ByteBuffer buffer, String teamName) {
+            buffer.putInt(truncatedHash(teamName));
+        }
+
+        @Override
+        String teamKey(String nombre) {
+            int hash = truncatedHash(nombre);
+            String clave = super.teamKey(nombre);
+            return hash == 0 ? clave : clave + HASH_SEPARATOR + Integer.toHexString(hash);
+        }
+
+        @Override
+        String teamKey(ByteBuffer buffer, int base) {
+            int hash = storedHash(buffer, base);
+            String clave = super.teamKey(buffer, base);
+            return hash == 0 ? clave : clave + HASH_SEPARATOR + Integer.toHexString(hash);
+        }
+
+        @Override
+        boolean teamMatches(ByteBuffer buffer, int base, String clave) {
+            int separador = clave.indexOf(HASH_SEPARATOR);
+            int hash = storedHash(buffer, base);
+            if (separador < 0) {
+                return hash == 0 && super.teamMatches(buffer, base, clave);
+            }
+            return hash == Integer.parseUnsignedInt(clave.substring(separador + 1), 16)
+                    && super.teamMatches(buffer, base, clave.substring(0, separador));
+        }
+
+        /** Hash del nombre completo si no entra en su espacio, o 0 si entra. */
+        private int truncatedHash(String nombre) {
+            if (!truncatesTeam(nombre)) {
+                return 0;
+            }
+            int hash = WinnersIndex.normalize(nombre).hashCode();
+            return hash != 0 ? hash : 1;
+        }
+
+        private int storedHash(ByteBuffer buffer, int base) {
+            return buffer.getInt(base + recordSize() - 2 * Integer.BYTES);
+        }
+    };
+
+    // Separa el nombre truncado del hash del nombre completo en las claves de V5
+    private static final char HASH_SEPARATOR = '\0';
+
+    static final int V2_MAGIC = 0x42574C32; // "BWL2"
+    private static final int V2_TEAM_OFFSET = 2 * Long.BYTES + Integer.BYTES;
+
+    /** Formato con el que se crean los archivos nuevos. */
+    static final LedgerFormat DEFAULT = V5;
+
+    /** Tamaño del registro más grande entre todos los formatos. */
+    static final int MAX_RECORD_SIZE = V4.recordSize;
+
+    private final int version;
+    private final int headerSize;
+    private final int recordSize;
+    // Espacio de cada nombre en UTF-8, con su byte de largo
+    private final int teamSlot;
+    private final int playerSlot;
+    // Si cada registro termina con un CRC32C de los bytes anteriores
+    private final boolean checksummed;
+
+    LedgerFormat(int version, int headerSize, int recordSize,
+                 int teamSlot, int playerSlot, boolean checksummed) {
+        this.version = version;
+        this.headerSize = headerSize;
+        this.recordSize = recordSize;
+        this.teamSlot = teamSlot;
+        this.playerSlot = playerSlot;
+        this.checksummed = checksummed;
+    }
+
+    int version() { return version; }
+    int headerSize() { return headerSize; }
+    int recordSize() { return recordSize; }
+
+    /**
+     * Cantidad de registros completos en un archivo del tamaño indicado.
+     *
+     * @param length tamaño del archivo en bytes
+     * @return registros completos
+     */
+    long recordCount(long length) {
+        return Math.max(0L, (length - headerSize) / recordSize);
+    }
+
+    /**
+     * Posición dentro del archivo del registro con el número indicado.
+     * El número es relativo al archivo: la clave menos la clave base.
+     *
+     * @param numero número del registro en el archivo, empezando en 1
+     * @return posición en bytes
+     */
+    long offsetOf(long numero) {
+        return headerSize + (numero - 1) * recordSize;
+    }
+
+    /**
+     * Escribe el encabezado de un archivo vacío.
+     *
+     * @param channel canal del archivo
+     * @param baseClave clave anterior a la del primer registro del archivo
+     * @return posición donde empieza el primer registro
+     * @throws IOException si no se pudo escribir
+     */
+    long writeHeader(FileChannel channel, long baseClave) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(headerSize());
+        header.putInt(V2_MAGIC);
+        header.putShort((short) version);
+        header.putShort((short) 0);        // banderas
+        header.putInt(recordSize());
+        header.putLong(System.currentTimeMillis());
+        header.putLong(baseClave);
+        header.clear();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        return headerSize();
+    }
+
+    /**
+     * Clave anterior a la del primer registro del archivo; 0 si el archivo
+     * empieza en la clave 1.
+     *
+     * @param channel canal del archivo
+     * @return clave base
+     * @throws IOException si no se pudo leer el encabezado
+     */
+    long baseClave(FileChannel channel) throws IOException {
+        return readHeaderLong(channel, 20);
+    }
+
+    /**
+     * Fecha de creación guardada en el encabezado, o -1 si el formato no la guarda.
+     *
+     * @param channel canal del archivo
+     * @return fecha en milisegundos o -1
+     * @throws IOException si no se pudo leer el encabezado
+     */
+    long createdAt(FileChannel channel) throws IOException {
+        return readHeaderLong(channel, 12);
+    }
+
+    /** Escribe un registro completo desde la posición actual del buffer. */
+    void encode(ByteBuffer buffer, long clave, long timestamp,
+                String teamName, List<Player> players, int score) {
+        int inicio = buffer.position();
+        buffer.putLong(clave);
+        buffer.putLong(timestamp);
+        buffer.putInt(score);
+        putUtf8(buffer, storedTeamName(teamName), teamSlot);
+        for (int i = 0; i < 3; i++) {
+            putUtf8(buffer, storedPlayerName(nameOf(players, i)), playerSlot);
+        }
+        encodeExtra(buffer, teamName);
+        if (checksummed) {
+            buffer.putInt(checksum(buffer, inicio));
+        }
+    }
+
+    /** Campos que un formato agrega después de los nombres y antes del CRC. */
+    void encodeExtra(ByteBuffer buffer, String teamName) {
+    }
+
+    /** Indica si el nombre del equipo no entra entero en su espacio UTF-8 (V2 en adelante). */
+    boolean truncatesTeam(String nombre) {
+        return nombre.getBytes(StandardCharsets.UTF_8).length > teamSlot - 1;
+    }
+
+    /** Nombre del equipo tal como queda guardado tras truncarlo al espacio del campo. */
+    String storedTeamName(String nombre) {
+        return new String(utf8(nombre, teamSlot - 1), StandardCharsets.UTF_8);
+    }
+
+    /** Nombre de un jugador tal como queda guardado tras truncarlo al espacio del campo. */
+    String storedPlayerName(String nombre) {
+        return new String(utf8(nombre, playerSlot - 1), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return true si cada registro termina con un CRC32C (V3 y V4)
+     */
+    boolean hasChecksum() {
+        return checksummed;
+    }
+
+    /**
+     * Indica si el CRC guardado al final del registro que empieza en
+     * {@code base} coincide con sus datos. Solo tiene sentido si el formato
+     * {@link #hasChecksum() lo guarda}.
+     *
+     * @param buffer buffer con el registro
+     * @param base posición del registro dentro del buffer
+     * @return true si el registro está íntegro
+     */
+    boolean checksumMatches(ByteBuffer buffer, int base) {
+        return buffer.getInt(base + recordSize - Integer.BYTES) == checksum(buffer, base);
+    }
+
+    /** Lee la clave del registro que empieza en {@code base}. */
+    long clave(ByteBuffer buffer, int base) {
+        return buffer.getLong(base);
+    }
+
+    /** Lee la fecha del registro; 0 si el formato no la guarda. */
+    long timestamp(ByteBuffer buffer, int base) {
+        return buffer.getLong(base + Long.BYTES);
+    }
+
+    /** Lee el puntaje del registro. */
+    int score(ByteBuffer buffer, int base) {
+        return buffer.getInt(base + 2 * Long.BYTES);
+    }
+
+    /** Lee el nombre del equipo sin el relleno. */
+    String teamName(ByteBuffer buffer, int base) {
+        return getUtf8(buffer, base + V2_TEAM_OFFSET);
+    }
+
+    /** Lee el nombre de uno de los tres jugadores sin el relleno. */
+    String playerName(ByteBuffer buffer, int base, int player) {
+        return getUtf8(buffer, base + V2_TEAM_OFFSET + teamSlot + player * playerSlot);
+    }
+
+    /**
+     * Posición del espacio de un nombre guardado en UTF-8 (byte de largo
+     * seguido de los bytes), para copiarlo sin construir un {@code String}.
+     *
+     * @param base posición del registro dentro del buffer
+     * @param campo 0 para el equipo, 1 a 3 para los jugadores
+     * @return posición del byte de largo, o -1 si el formato no guarda UTF-8
+     */
+    int utf8Slot(int base, int campo) {
+        return campo == 0
+                ? base + V2_TEAM_OFFSET
+                : base + V2_TEAM_OFFSET + teamSlot + (campo - 1) * playerSlot;
+    }
+
+    /**
+     * Decodifica el registro completo que empieza en {@code base}.
+     *
+     * @param buffer buffer con el registro
+     * @param base posición del registro dentro del buffer
+     * @return registro decodificado
+     */
+    WinnerRecord decode(ByteBuffer buffer, int base) {
+        return new WinnerRecord(
+                clave(buffer, base),
+                teamName(buffer, base),
+                List.of(playerName(buffer, base, 0),
+                        playerName(buffer, base, 1),
+                        playerName(buffer, base, 2)),
+                score(buffer, base),
+                timestamp(buffer, base));
+    }
+
+    /**
+     * Clave con la que se agrupan y buscan los registros de un equipo: su
+     * nombre tal como se guarda, normalizado con
+     * {@link WinnersIndex#normalize(String)}. En V5, si el nombre no entra en
+     * su espacio, lleva además el hash del nombre completo.
+     *
+     * @param nombre nombre completo del equipo
+     * @return clave del equipo en este formato
+     */
+    String teamKey(String nombre) {
+        return WinnersIndex.normalize(storedTeamName(nombre));
+    }
+
+    /**
+     * Clave del equipo del registro que empieza en {@code base}; coincide con
+     * {@link #teamKey(String)} del nombre con que se escribió.
+     */
+    String teamKey(ByteBuffer buffer, int base) {
+        return WinnersIndex.normalize(teamName(buffer, base));
+    }
+
+    /**
+     * Compara el equipo guardado con una clave de {@link #teamKey(String)},
+     * ignorando el relleno y las mayúsculas, sin construir un {@code String}
+     * cuando el nombre guardado es ASCII.
+     */
+    boolean teamMatches(ByteBuffer buffer, int base, String nombre) {
+        int slot = base + V2_TEAM_OFFSET;
+        int start = slot + 1;
+        int end = start + (buffer.get(slot) & 0xFF);
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+
+        boolean ascii = true;
+        for (int i = start; i < end && ascii; i++) {
+            ascii = buffer.get(i) >= 0;
+        }
+        if (!ascii) {
+            return getUtf8(buffer, slot).equalsIgnoreCase(nombre);
+        }
+
+        if (end - start != nombre.length()) {
+            return false;
+        }
+        for (int i = 0; i < nombre.length(); i++) {
+            if (!sameIgnoreCase((char) buffer.get(start + i), nombre.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Detecta el formato de un archivo abierto.
+     * Un encabezado escrito a medias, sin versión todavía, se informa como
+     * el formato por defecto; la recuperación al iniciar lo descarta.
+     *
+     * @param channel canal del archivo
+     * @return formato del archivo, o null si está vacío
+     * @throws IOException si no se pudo leer o la versión es desconocida
+     */
+    static LedgerFormat detect(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size == 0) {
+            return null;
+        }
+        if (size < Integer.BYTES) {
+            return V1;
+        }
+        ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES + Short.BYTES);
+        magic.limit((int) Math.min(magic.capacity(), size));
+        while (magic.hasRemaining()) {
+            channel.read(magic, magic.position());
+        }
+        if (magic.getInt(0) != V2_MAGIC) {
+            return V1;
+        }
+        if (magic.position() < magic.capacity()) {
+            return DEFAULT;
+        }
+        short version = magic.getShort(Integer.BYTES);
+        for (LedgerFormat format : values()) {
+            if (format.headerSize() > 0 && format.version() == version) {
+                return format;
+            }
+        }
+        throw new IOException("Versión desconocida del archivo de ganadores: " + version);
+    }
+
+    /**
+     * Detecta el formato de un archivo por su ruta.
+     *
+     * @param path ruta del archivo
+     * @return formato del archivo, o null si no existe o está vacío
+     * @throws IOException si no se pudo leer
+     */
+    static LedgerFormat detect(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return detect(channel);
+        }
+    }
+
+    // ─── HELPERS ─────────────────────────────────────────────────────────────
+
+    /** CRC32C de todos los bytes del registro menos el propio CRC. */
+    private int checksum(ByteBuffer buffer, int base) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.duplicate().limit(base + recordSize - Integer.BYTES).position(base));
+        return (int) crc.getValue();
+    }
+
+    private static long readHeaderLong(FileChannel channel, long posicion) throws IOException {
+        ByteBuffer valor = ByteBuffer.allocate(Long.BYTES);
+        while (valor.hasRemaining()) {
+            if (channel.read(valor, posicion + valor.position()) < 0) {
+                throw new IOException("Encabezado incompleto");
+            }
+        }
+        return valor.getLong(0);
+    }
+
+    private static String nameOf(List<Player> players, int i) {
+        return (i < players.size()) ? players.get(i).getName() : "";
+    }
+
+    static boolean sameIgnoreCase(char a, char b) {
+        if (a == b) {
+            return true;
+        }
+        char u1 = Character.toUpperCase(a);
+        char u2 = Character.toUpperCase(b);
+        return u1 == u2 || Character.toLowerCase(u1) == Character.toLowerCase(u2);
+    }
+
+    private static void putChars(ByteBuffer buffer, String texto, int tamaño) {
+        int largo = Math.min(texto.length(), tamaño);
+        for (int i = 0; i < largo; i++) {
+            buffer.putChar(texto.charAt(i));
+        }
+        for (int i = largo; i < tamaño; i++) {
+            buffer.putChar(' ');
+        }
+    }
+
+    private static String getChars(ByteBuffer buffer, int offset, int tamaño) {
+        char[] chars = new char[tamaño];
+        for (int i = 0; i < tamaño; i++) {
+            chars[i] = buffer.getChar(offset + i * Character.BYTES);
+        }
+        return new String(chars).trim();
+    }
+
+    /**
+     * Corta el texto en la cantidad de caracteres indicada sin partir un par
+     * sustituto.
+     */
+    private static String chars(String texto, int maxChars) {
+        if (texto.length() <= maxChars) {
+            return texto;
+        }
+        int corte = Character.isHighSurrogate(texto.charAt(maxChars - 1)) ? maxChars - 1 : maxChars;
+        return texto.substring(0, corte);
+    }
+
+    private static void putUtf8(ByteBuffer buffer, String texto, int slot) {
+        byte[] bytes = utf8(texto, slot - 1);
+        buffer.put((byte) bytes.length);
+        buffer.put(bytes);
+        for (int i = bytes.length + 1; i < slot; i++) {
+            buffer.put((byte) 0);
+        }
+    }
+
+    private static String getUtf8(ByteBuffer buffer, int offset) {
+        int largo = buffer.get(offset) & 0xFF;
+        byte[] bytes = new byte[largo];
+        buffer.get(offset + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8).trim();
+    }
+
+    /**
+     * Codifica en UTF-8 truncando al límite de bytes sin partir un carácter.
+     */
+    private static byte[] utf8(String texto, int maxBytes) {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length <= maxBytes) {
+            return bytes;
+        }
+        int corte = maxBytes;
+        while (corte > 0 && (bytes[corte] & 0xC0) == 0x80) {
+            corte--; // retroceder hasta el inicio de un carácter
+        }
+        byte[] truncado = new byte[corte];
+        System.arraycopy(bytes, 0, truncado, 0, corte);
+        return truncado;
+    }
+}
@@ -0,0 +1,83 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Describe un archivo de registros de ganadores: el activo, donde se siguen
+ * agregando registros, o un segmento sellado con su resumen al final.
+ * Cada archivo contiene las claves consecutivas desde {@code baseClave + 1}.
+ */
+class LedgerSegment {
+
+    private final Path path;
+    private final LedgerFormat format;
+    private final long baseClave;
+    private final long recordCount;
+    private final SegmentSummary summary;
+
+    private LedgerSegment(Path path, LedgerFormat format, long baseClave,
+                          long recordCount, SegmentSummary summary) {
+        this.path = path;
+        this.format = format;
+        this.baseClave = baseClave;
+        this.recordCount = recordCount;
+        this.summary = summary;
+    }
+
+    /**
+     * Lee el encabezado y, si existe, el resumen final del archivo.
+     *
+     * @param path ruta del archivo
+     * @return descripción del archivo, o null si no existe o está vacío
+     * @throws IOException si no se pudo leer el archivo
+     */
+    static LedgerSegment open(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LedgerFormat format = LedgerFormat.detect(channel);
+            if (format == null) {
+                return null;
+            }
+            SegmentSummary summary = SegmentSummary.readFooter(channel, format);
+            if (summary != null) {
+                return new LedgerSegment(path, format, summary.getFirstClave() - 1,
+                        summary.getRecordCount(), summary);
+            }
+            return new LedgerSegment(path, format, format.baseClave(channel),
+                    format.recordCount(channel.size()), null);
+        }
+    }
+
+    Path getPath() { return path; }
+    LedgerFormat getFormat() { return format; }
+    long getBaseClave() { return baseClave; }
+    long getRecordCount() { return recordCount; }
+
+    /** Resumen del segmento, o null si el archivo no está sellado. */
+    SegmentSummary getSummary() { return summary; }
+
+    boolean isSealed() { return summary != null; }
+
+    long firstClave() { return baseClave + 1; }
+    long lastClave() { return baseClave + recordCount; }
+
+    /**
+     * Posición en el archivo del registro con la clave global indicada.
+     */
+    long offsetOf(long clave) {
+        return format.offsetOf(clave - baseClave);
+    }
+
+    /**
+     * Posición donde terminan los registros completos.
+     */
+    long endOfRecords() {
+        return format.offsetOf(recordCount + 1);
+    }
+}
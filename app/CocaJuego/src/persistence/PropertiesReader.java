@@ -0,0 +1,357 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.Arrays;
+
+/**
+ * Lee las entradas clave/valor de un archivo .properties con las reglas de
+ * {@link java.util.Properties#load(Reader)}: comentarios con {@code #} o
+ * {@code !}, separador {@code =}, {@code :} o espacio, líneas que continúan
+ * con {@code \} y los escapes {@code \t \n \r \f} y de Unicode.
+ *
+ * <p>La clave y el valor de la última entrada quedan en arreglos de
+ * caracteres que se reutilizan: se pueden comparar y convertir a número sin
+ * crear cadenas. Lo usan {@link TeamPropertiesParser} y {@link TeamImporter}.
+ * No se debe usar desde varios hilos a la vez.</p>
+ */
+final class PropertiesReader {
+
+    // Fin de la línea lógica (o del archivo)
+    private static final int END = -1;
+
+    // Marca de un carácter que vino escapado: no cuenta como separador
+    private static final int ESCAPED = 0x10000;
+
+    private final byte[] bytes = new byte[8192];
+    private final char[] chars = new char[8192];
+    private InputStream stream;
+    private Reader reader;
+    private int pos;
+    private int limit;
+
+    private char[] key = new char[32];
+    private int keyLength;
+    private char[] value = new char[64];
+    private int valueLength;
+
+    // Resultado de parseValue
+    private int parsed;
+
+    /**
+     * Empieza a leer un flujo en ISO-8859-1, igual que
+     * {@link java.util.Properties#load(InputStream)}. El flujo no se cierra.
+     */
+    void open(InputStream in) {
+        this.stream = in;
+        this.reader = null;
+        pos = 0;
+        limit = 0;
+    }
+
+    /**
+     * Empieza a leer un flujo de caracteres. El flujo no se cierra.
+     */
+    void open(Reader in) {
+        this.stream = null;
+        this.reader = in;
+        pos = 0;
+        limit = 0;
+    }
+
+    /** Suelta el flujo actual. */
+    void release() {
+        stream = null;
+        reader = null;
+    }
+
+    /** @return clave de la última entrada leída */
+    String key() {
+        return new String(key, 0, keyLength);
+    }
+
+    /** @return valor de la última entrada leída */
+    String value() {
+        return new String(value, 0, valueLength);
+    }
+
+    int keyLength() {
+        return keyLength;
+    }
+
+    /** @return carácter de la clave en la posición indicada */
+    char keyAt(int i) {
+        return key[i];
+    }
+
+    // ─── NÚMEROS ─────────────────────────────────────────────────────────────
+
+    /**
+     * Convierte el valor con las mismas reglas que {@link Integer#parseInt(String)}.
+     *
+     * @return false si no es un entero válido
+     */
+    boolean parseValue() {
+        parsed = 0;
+        if (valueLength == 0) {
+            return false;
+        }
+        int i = 0;
+        boolean negativo = false;
+        char primero = value[0];
+        if (primero == '-' || primero == '+') {
+            negativo = primero == '-';
+            if (valueLength == 1) {
+                return false;
+            }
+            i = 1;
+        }
+        // Se acumula en negativo para poder representar Integer.MIN_VALUE
+        int limite = negativo ? Integer.MIN_VALUE : -Integer.MAX_VALUE;
+        int resultado = 0;
+        for (; i < valueLength; i++) {
+            int digito = Character.digit(value[i], 10);
+            if (digito < 0 || resultado < limite / 10) {
+                return false;
+            }
+            resultado *= 10;
+            if (resultado < limite + digito) {
+                return false;
+            }
+            resultado -= digito;
+        }
+        parsed = negativo ? resultado : -resultado;
+        return true;
+    }
+
+    /** @return número convertido por el último {@link #parseValue()} válido */
+    int parsed() {
+        return parsed;
+    }
+
+    // ─── CLAVES ──────────────────────────────────────────────────────────────
+
+    boolean keyIs(char[] esperada) {
+        return keyLength == esperada.length && startsWith(esperada);
+    }
+
+    boolean startsWith(char[] prefijo) {
+        if (keyLength < prefijo.length) {
+            return false;
+        }
+        for (int i = 0; i < prefijo.length; i++) {
+            if (key[i] != prefijo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    boolean endsAt(int desde, char[] sufijo) {
+        if (keyLength - desde != sufijo.length) {
+            return false;
+        }
+        for (int i = 0; i < sufijo.length; i++) {
+            if (key[desde + i] != sufijo[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ─── LÍNEAS ──────────────────────────────────────────────────────────────
+
+    /**
+     * Lee la próxima clave y su valor.
+     *
+     * @param source origen del flujo, para los mensajes de error
+     * @return false si no quedan más entradas
+     * @throws IOException si no se pudo leer o hay un escape de Unicode inválido
+     */
+    boolean readEntry(Object source) throws IOException {
+        int c;
+        while (true) {
+            c = raw();
+            if (c == END) {
+                return false;
+            }
+            if (c == ' ' || c == '\t' || c == '\f' || c == '\n' || c == '\r') {
+                continue;
+            }
+            if (c == '\\' && (peek() == '\n' || peek() == '\r')) {
+                // Una continuación antes de cualquier carácter deja la línea vacía,
+                // así que lo que sigue todavía puede ser un comentario
+                continue;
+            }
+            if (c == '#' || c == '!') {
+                skipComment();
+                continue;
+            }
+            break;
+        }
+        pos--;
+
+        keyLength = 0;
+        valueLength = 0;
+        boolean separador = false;
+        while (true) {
+            c = next(source);
+            if (c == END) {
+                return true;
+            }
+            if (c == '=' || c == ':') {
+                separador = true;
+                break;
+            }
+            if (c == ' ' || c == '\t' || c == '\f') {
+                break;
+            }
+            appendKey((char) c);
+        }
+
+        c = next(source);
+        while (c == ' ' || c == '\t' || c == '\f' || (!separador && (c == '=' || c == ':'))) {
+            if (c == '=' || c == ':') {
+                separador = true;
+            }
+            c = next(source);
+        }
+        while (c != END) {
+            appendValue((char) c);
+            c = next(source);
+        }
+        return true;
+    }
+
+    /**
+     * Siguiente carácter de la línea lógica, con los escapes resueltos y las
+     * continuaciones unidas.
+     *
+     * @return el carácter, con {@link #ESCAPED} si vino escapado, o {@link #END}
+     */
+    private int next(Object source) throws IOException {
+        int c = raw();
+        while (c == '\\') {
+            int e = raw();
+            if (e == '\n' || e == '\r') {
+                // Continuación: se saltean el fin de línea y la sangría siguiente
+                if (e == '\r' && peek() == '\n') {
+                    pos++;
+                }
+                c = raw();
+                while (c == ' ' || c == '\t' || c == '\f') {
+                    c = raw();
+                }
+                continue;
+            }
+            if (e == END) {
+                return END;
+            }
+            return ESCAPED | unescape(e, source);
+        }
+        if (c == '\r') {
+            if (peek() == '\n') {
+                pos++;
+            }
+            return END;
+        }
+        return c == '\n' ? END : c;
+    }
+
+    private char unescape(int e, Object source) throws IOException {
+        switch (e) {
+            case 't': return '\t';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 'f': return '\f';
+            case 'u':
+                int codigo = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digito = Character.digit(rawJoined(), 16);
+                    if (digito < 0) {
+                        throw new IOException(source + " tiene un escape de Unicode inválido");
+                    }
+                    codigo = (codigo << 4) | digito;
+                }
+                return (char) codigo;
+            default:
+                return (char) e;
+        }
+    }
+
+    /**
+     * Siguiente carácter sin resolver escapes, pero uniendo las continuaciones:
+     * {@code Properties} une las líneas antes de decodificar, así que un
+     * escape de Unicode puede quedar partido entre dos líneas.
+     */
+    private int rawJoined() throws IOException {
+        int c = raw();
+        while (c == '\\' && (peek() == '\n' || peek() == '\r')) {
+            if (raw() == '\r' && peek() == '\n') {
+                pos++;
+            }
+            c = raw();
+            while (c == ' ' || c == '\t' || c == '\f') {
+                c = raw();
+            }
+        }
+        return c;
+    }
+
+    private void skipComment() throws IOException {
+        int c;
+        do {
+            c = raw();
+        } while (c != END && c != '\n' && c != '\r');
+    }
+
+    private void appendKey(char c) {
+        if (keyLength == key.length) {
+            key = Arrays.copyOf(key, key.length * 2);
+        }
+        key[keyLength++] = c;
+    }
+
+    private void appendValue(char c) {
+        if (valueLength == value.length) {
+            value = Arrays.copyOf(value, value.length * 2);
+        }
+        value[valueLength++] = c;
+    }
+
+    // ─── BUFFER ──────────────────────────────────────────────────────────────
+
+    private int raw() throws IOException {
+        if (pos == limit && !fill()) {
+            return END;
+        }
+        return chars[pos++];
+    }
+
+    private int peek() throws IOException {
+        if (pos == limit && !fill()) {
+            return END;
+        }
+        return chars[pos];
+    }
+
+    private boolean fill() throws IOException {
+        int leidos;
+        if (reader != null) {
+            leidos = reader.read(chars, 0, chars.length);
+        } else {
+            leidos = stream.read(bytes, 0, bytes.length);
+            // ISO-8859-1: cada byte es un carácter
+            for (int i = 0; i < leidos; i++) {
+                chars[i] = (char) (bytes[i] & 0xFF);
+            }
+        }
+        if (leidos <= 0) {
+            return false;
+        }
+        pos = 0;
+        limit = leidos;
+        return true;
+    }
+}
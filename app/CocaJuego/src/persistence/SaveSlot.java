@@ -0,0 +1,46 @@
+package persistence;
+
+import java.nio.file.Path;
+
+/**
+ * Manifiesto de una partida guardada: lo necesario para listarla y
+ * verificarla sin leer el archivo de equipos.
+ *
+ * <p>Las posiciones de cada equipo dentro del archivo no se cargan al
+ * listar; se leen del manifiesto solo cuando se pide un equipo suelto
+ * (ver {@link SaveSlots#loadTeam}).</p>
+ */
+public class SaveSlot {
+
+    private final Path manifest;
+    private final Path data;
+    private final int teamCount;
+    private final long timestamp;
+    private final long dataLength;
+    private final int checksum;
+
+    SaveSlot(Path manifest, Path data, int teamCount, long timestamp,
+             long dataLength, int checksum) {
+        this.manifest = manifest;
+        this.data = data;
+        this.teamCount = teamCount;
+        this.timestamp = timestamp;
+        this.dataLength = dataLength;
+        this.checksum = checksum;
+    }
+
+    Path getManifest() { return manifest; }
+    Path getData() { return data; }
+
+    /** Cantidad de equipos guardados. */
+    public int getTeamCount() { return teamCount; }
+
+    /** Fecha en que se guardó la partida, en milisegundos. */
+    public long getTimestamp() { return timestamp; }
+
+    /** Tamaño en bytes del archivo de equipos. */
+    public long getDataLength() { return dataLength; }
+
+    /** CRC32 del archivo de equipos. */
+    public int getChecksum() { return checksum; }
+}
@@ -0,0 +1,297 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Properties;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import modelo.Team;
+
+/**
+ * Partidas guardadas en varias ranuras, cada una con un archivo de equipos
+ * ({@code .teams}, en el formato de {@link TeamCodec}) y un manifiesto
+ * pequeño al lado ({@code .manifest}).
+ *
+ * <pre>
+ *  manifiesto   magic "CJSM" (int), versión (short), cantidad de equipos (int),
+ *               fecha (long), tamaño del archivo de equipos (long), CRC32 (int),
+ *               posición de cada equipo en el archivo de equipos (long × cantidad)
+ * </pre>
+ *
+ * <p>Listar las ranuras lee solo el encabezado de cada manifiesto, así que no
+ * depende del tamaño de los planteles. El manifiesto se escribe después del
+ * archivo de equipos: una ranura sin manifiesto no se lista.</p>
+ *
+ * <p>Por defecto se conservan todas las partidas. Si se fija un límite con
+ * {@link #setMaxSlots(int)}, cada vez que se guarda se borran las más
+ * antiguas que lo superen. El límite se guarda en la misma carpeta.</p>
+ */
+public class SaveSlots {
+
+    private static final String DIRECTORIO = "Specs/data/saves";
+    private static final int MAGIC = 0x434A534D; // "CJSM"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Integer.BYTES
+            + Long.BYTES + Long.BYTES + Integer.BYTES;
+    private static final String DATA_EXT = ".teams";
+    private static final String MANIFEST_EXT = ".manifest";
+    private static final String SETTINGS = "retencion.properties";
+
+    /** Límite que indica que se conservan todas las partidas. */
+    public static final int KEEP_ALL = 0;
+
+    private final Path directorio;
+    private Integer maxSlots;
+
+    public SaveSlots() {
+        this(Paths.get(DIRECTORIO));
+    }
+
+    /**
+     * @param directorio carpeta de las partidas guardadas
+     */
+    public SaveSlots(Path directorio) {
+        this.directorio = directorio;
+    }
+
+    /**
+     * Guarda los equipos en una ranura nueva y, si hay un límite, borra las
+     * más antiguas que lo superen.
+     *
+     * @param teams equipos a guardar
+     * @return manifiesto de la ranura creada
+     * @throws IOException si no se pudo guardar
+     */
+    public synchronized SaveSlot save(List<Team> teams) throws IOException {
+        Files.createDirectories(directorio);
+        long fecha = System.currentTimeMillis();
+        String nombre = "partida-" + fecha;
+        int intento = 0;
+        while (Files.exists(directorio.resolve(nombre + MANIFEST_EXT))) {
+            nombre = "partida-" + fecha + "-" + (++intento);
+        }
+        Path data = directorio.resolve(nombre + DATA_EXT);
+        Path manifest = directorio.resolve(nombre + MANIFEST_EXT);
+
+        CRC32 crc = new CRC32();
+        long[] offsets;
+        Path dataTmp = data.resolveSibling(data.getFileName() + ".tmp");
+        try (OutputStream out = new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(dataTmp)), crc)) {
+            offsets = new TeamCodec().write(teams, out);
+        }
+        long largo = Files.size(dataTmp);
+        move(dataTmp, data);
+
+        Path manifestTmp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(manifestTmp)))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(teams.size());
+            out.writeLong(fecha);
+            out.writeLong(largo);
+            out.writeInt((int) crc.getValue());
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+        }
+        move(manifestTmp, manifest);
+
+        SaveSlot slot = new SaveSlot(manifest, data, teams.size(), fecha, largo, (int) crc.getValue());
+        prune();
+        return slot;
+    }
+
+    /**
+     * Lista las partidas guardadas leyendo solo sus manifiestos.
+     *
+     * @return partidas de la más reciente a la más antigua
+     * @throws IOException si no se pudo listar la carpeta
+     */
+    public List<SaveSlot> list() throws IOException {
+        List<SaveSlot> slots = new ArrayList<>();
+        if (!Files.isDirectory(directorio)) {
+            return slots;
+        }
+        try (DirectoryStream<Path> archivos = Files.newDirectoryStream(directorio, "*" + MANIFEST_EXT)) {
+            for (Path manifest : archivos) {
+                SaveSlot slot = readManifest(manifest);
+                if (slot != null) {
+                    slots.add(slot);
+                }
+            }
+        }
+        slots.sort(Comparator.comparingLong(SaveSlot::getTimestamp).reversed());
+        return slots;
+    }
+
+    /**
+     * Carga todos los equipos de una partida, verificando el tamaño y el CRC
+     * del archivo contra el manifiesto.
+     *
+     * @param slot partida a cargar
+     * @return equipos guardados
+     * @throws IOException si el archivo no coincide con el manifiesto o no se pudo leer
+     */
+    public List<Team> load(SaveSlot slot) throws IOException {
+        if (Files.size(slot.getData()) != slot.getDataLength()) {
+            throw new IOException(slot.getData() + " no coincide con su manifiesto");
+        }
+        CRC32 crc = new CRC32();
+        List<Team> teams;
+        try (InputStream in = new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(slot.getData())), crc)) {
+            teams = new TeamCodec().read(in);
+            in.transferTo(OutputStream.nullOutputStream()); // completa el CRC
+        }
+        if ((int) crc.getValue() != slot.getChecksum() || teams.size() != slot.getTeamCount()) {
+            throw new IOException(slot.getData() + " está dañado");
+        }
+        return teams;
+    }
+
+    /**
+     * Carga un solo equipo de una partida usando su posición en el manifiesto,
+     * sin leer el resto del archivo. No se verifica el CRC.
+     *
+     * @param slot partida guardada
+     * @param index índice del equipo, de 0 a {@code getTeamCount() - 1}
+     * @return equipo leído
+     * @throws IOException si no se pudo leer
+     */
+    public Team loadTeam(SaveSlot slot, int index) throws IOException {
+        if (index < 0 || index >= slot.getTeamCount()) {
+            throw new IndexOutOfBoundsException("Equipo " + index + " de " + slot.getTeamCount());
+        }
+        long offset;
+        try (FileChannel channel = FileChannel.open(slot.getManifest(), StandardOpenOption.READ)) {
+            ByteBuffer valor = ByteBuffer.allocate(Long.BYTES);
+            long posicion = HEADER_SIZE + (long) index * Long.BYTES;
+            while (valor.hasRemaining()) {
+                if (channel.read(valor, posicion + valor.position()) < 0) {
+                    throw new IOException(slot.getManifest() + " está incompleto");
+                }
+            }
+            offset = valor.getLong(0);
+        }
+        try (FileChannel channel = FileChannel.open(slot.getData(), StandardOpenOption.READ)) {
+            channel.position(offset);
+            return new TeamCodec().readTeam(new DataInputStream(
+                    new BufferedInputStream(Channels.newInputStream(channel))));
+        }
+    }
+
+    /**
+     * Borra una partida guardada.
+     *
+     * @param slot partida a borrar
+     * @throws IOException si no se pudo borrar
+     */
+    public synchronized void delete(SaveSlot slot) throws IOException {
+        // Primero el manifiesto, para que no quede listada a medio borrar
+        Files.deleteIfExists(slot.getManifest());
+        Files.deleteIfExists(slot.getData());
+    }
+
+    /**
+     * @return partidas que se conservan al guardar, o {@link #KEEP_ALL}
+     */
+    public synchronized int getMaxSlots() {
+        if (maxSlots == null) {
+            maxSlots = KEEP_ALL;
+            Path settings = directorio.resolve(SETTINGS);
+            if (Files.exists(settings)) {
+                Properties properties = new Properties();
+                try (InputStream in = Files.newInputStream(settings)) {
+                    properties.load(in);
+                    maxSlots = Math.max(KEEP_ALL, Integer.parseInt(properties.getProperty("max", "0").trim()));
+                } catch (IOException | NumberFormatException e) {
+                    // Configuración ilegible: no se borra nada
+                    e.printStackTrace();
+                }
+            }
+        }
+        return maxSlots;
+    }
+
+    /**
+     * Fija cuántas partidas se conservan. Las que sobren se borran en el
+     * siguiente guardado, no ahora.
+     *
+     * @param max partidas a conservar, o {@link #KEEP_ALL} para no borrar ninguna
+     * @throws IOException si no se pudo guardar la configuración
+     */
+    public synchronized void setMaxSlots(int max) throws IOException {
+        if (max < KEEP_ALL) {
+            throw new IllegalArgumentException("El límite no puede ser negativo: " + max);
+        }
+        Files.createDirectories(directorio);
+        Properties properties = new Properties();
+        properties.setProperty("max", Integer.toString(max));
+        try (OutputStream out = Files.newOutputStream(directorio.resolve(SETTINGS))) {
+            properties.store(out, "Partidas guardadas que se conservan (0 = todas)");
+        }
+        maxSlots = max;
+    }
+
+    private void prune() throws IOException {
+        int max = getMaxSlots();
+        if (max == KEEP_ALL) {
+            return;
+        }
+        List<SaveSlot> slots = list();
+        for (int i = max; i < slots.size(); i++) {
+            delete(slots.get(i));
+        }
+    }
+
+    private SaveSlot readManifest(Path manifest) {
+        String archivo = manifest.getFileName().toString();
+        Path data = manifest.resolveSibling(
+                archivo.substring(0, archivo.length() - MANIFEST_EXT.length()) + DATA_EXT);
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(manifest), HEADER_SIZE))) {
+            if (in.readInt() != MAGIC || in.readShort() != VERSION) {
+                return null;
+            }
+            int cantidad = in.readInt();
+            long fecha = in.readLong();
+            long largo = in.readLong();
+            int crc = in.readInt();
+            return new SaveSlot(manifest, data, cantidad, fecha, largo, crc);
+        } catch (IOException e) {
+            // Manifiesto dañado o incompleto: la ranura no se lista
+            return null;
+        }
+    }
+
+    private static void move(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
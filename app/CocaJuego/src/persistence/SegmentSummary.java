@@ -0,0 +1,241 @@
+package persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import modelo.Leaderboard;
+
+/**
+ * Resumen de un conjunto de registros de ganadores: victorias, mejor puntaje
+ * y puntaje total por equipo, y victorias por jugador.
+ *
+ * <p>Se guarda al final de cada segmento sellado para que las consultas
+ * no tengan que recorrer sus registros:</p>
+ * <pre>
+ *  [registros][resumen][largo del resumen: int][magic "BWSF": int]
+ * </pre>
+ * <p>También sirve como acumulado parcial en las consultas en paralelo.</p>
+ */
+class SegmentSummary {
+
+    private static final int FOOTER_MAGIC = 0x42575346; // "BWSF"
+    private static final int TRAILER_SIZE = 2 * Integer.BYTES;
+
+    /** Acumulado de un equipo o de un jugador. */
+    static class Tally {
+        private final String name;
+        private int wins;
+        private int best = Integer.MIN_VALUE;
+        private long total;
+
+        private Tally(String name) {
+            this.name = name;
+        }
+
+        private void add(int wins, int best, long total) {
+            this.wins += wins;
+            this.best = Math.max(this.best, best);
+            this.total += total;
+        }
+
+        int getWins() { return wins; }
+        int getBest() { return best; }
+    }
+
+    private long firstClave;
+    private long recordCount;
+    private final Map<String, Tally> teams = new HashMap<>();
+    private final Map<String, Tally> players = new HashMap<>();
+
+    long getFirstClave() { return firstClave; }
+    long getRecordCount() { return recordCount; }
+
+    /**
+     * Agrega al resumen el registro que empieza en {@code base}.
+     */
+    void add(LedgerFormat format, ByteBuffer buffer, int base) {
+        if (recordCount == 0) {
+            firstClave = format.clave(buffer, base);
+        }
+        recordCount++;
+
+        String teamName = format.teamName(buffer, base);
+        int score = format.score(buffer, base);
+        teams.computeIfAbsent(format.teamKey(buffer, base), k -> new Tally(teamName))
+                .add(1, score, score);
+
+        for (int p = 0; p < 3; p++) {
+            String playerName = format.playerName(buffer, base, p);
+            if (!playerName.isEmpty()) {
+                players.computeIfAbsent(WinnersIndex.normalize(playerName), k -> new Tally(playerName))
+                        .add(1, 0, 0);
+            }
+        }
+    }
+
+    /**
+     * Suma otro resumen a este.
+     *
+     * @param otro resumen a sumar
+     * @return este resumen
+     */
+    SegmentSummary merge(SegmentSummary otro) {
+        if (otro.recordCount > 0 && (recordCount == 0 || otro.firstClave < firstClave)) {
+            firstClave = otro.firstClave;
+        }
+        recordCount += otro.recordCount;
+        otro.teams.forEach((k, t) ->
+                teams.computeIfAbsent(k, x -> new Tally(t.name)).add(t.wins, t.best, t.total));
+        otro.players.forEach((k, p) ->
+                players.computeIfAbsent(k, x -> new Tally(p.name)).add(p.wins, 0, 0));
+        return this;
+    }
+
+    /**
+     * Retorna el acumulado de un equipo.
+     *
+     * @param normalizado clave del equipo, de {@link LedgerFormat#teamKey(String)}
+     * @return acumulado del equipo o null si no aparece
+     */
+    Tally team(String normalizado) {
+        return teams.get(normalizado);
+    }
+
+    /**
+     * Convierte el resumen en una tabla histórica.
+     *
+     * @return tabla histórica con los datos del resumen
+     */
+    Leaderboard toLeaderboard() {
+        List<Leaderboard.TeamEntry> teamEntries = new ArrayList<>(teams.size());
+        for (Tally t : teams.values()) {
+            teamEntries.add(new Leaderboard.TeamEntry(t.name, t.wins, t.best, t.total));
+        }
+        List<Leaderboard.PlayerEntry> playerEntries = new ArrayList<>(players.size());
+        for (Tally p : players.values()) {
+            playerEntries.add(new Leaderboard.PlayerEntry(p.name, p.wins));
+        }
+        return new Leaderboard(teamEntries, playerEntries, recordCount);
+    }
+
+    // ─── PIE DEL SEGMENTO ────────────────────────────────────────────────────
+
+    /**
+     * Escribe el resumen al final del archivo.
+     *
+     * @param channel canal del segmento, con los registros ya escritos
+     * @throws IOException si no se pudo escribir
+     */
+    void writeFooter(FileChannel channel) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(firstClave);
+            out.writeLong(recordCount);
+            writeMap(out, teams, true);
+            writeMap(out, players, false);
+        }
+
+        ByteBuffer footer = ByteBuffer.allocate(bytes.size() + TRAILER_SIZE);
+        footer.put(bytes.toByteArray());
+        footer.putInt(bytes.size());
+        footer.putInt(FOOTER_MAGIC);
+        footer.flip();
+
+        long posicion = channel.size();
+        while (footer.hasRemaining()) {
+            channel.write(footer, posicion + footer.position());
+        }
+    }
+
+    /**
+     * Lee el resumen del final del archivo, verificando que sea coherente
+     * con la cantidad de registros.
+     *
+     * @param channel canal del archivo
+     * @param format formato del archivo
+     * @return resumen leído, o null si el archivo no está sellado
+     * @throws IOException si no se pudo leer
+     */
+    static SegmentSummary readFooter(FileChannel channel, LedgerFormat format) throws IOException {
+        long size = channel.size();
+        if (size < format.headerSize() + TRAILER_SIZE) {
+            return null;
+        }
+
+        ByteBuffer trailer = ByteBuffer.allocate(TRAILER_SIZE);
+        readFully(channel, trailer, size - TRAILER_SIZE);
+        int largo = trailer.getInt(0);
+        if (trailer.getInt(Integer.BYTES) != FOOTER_MAGIC || largo < 2 * Long.BYTES) {
+            return null;
+        }
+        long finRegistros = size - TRAILER_SIZE - largo;
+        if (finRegistros < format.headerSize()
+                || (finRegistros - format.headerSize()) % format.recordSize() != 0) {
+            return null;
+        }
+
+        ByteBuffer body = ByteBuffer.allocate(largo);
+        readFully(channel, body, finRegistros);
+
+        SegmentSummary summary = new SegmentSummary();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(body.array()))) {
+            summary.firstClave = in.readLong();
+            summary.recordCount = in.readLong();
+            readMap(in, summary.teams, true);
+            readMap(in, summary.players, false);
+        } catch (IOException e) {
+            return null;
+        }
+        if (summary.recordCount != format.recordCount(finRegistros)) {
+            return null;
+        }
+        return summary;
+    }
+
+    private static void writeMap(DataOutputStream out, Map<String, Tally> map, boolean scores)
+            throws IOException {
+        out.writeInt(map.size());
+        for (Map.Entry<String, Tally> e : map.entrySet()) {
+            Tally t = e.getValue();
+            out.writeUTF(e.getKey());
+            out.writeUTF(t.name);
+            out.writeInt(t.wins);
+            if (scores) {
+                out.writeInt(t.best);
+                out.writeLong(t.total);
+            }
+        }
+    }
+
+    private static void readMap(DataInputStream in, Map<String, Tally> map, boolean scores)
+            throws IOException {
+        int cantidad = in.readInt();
+        for (int i = 0; i < cantidad; i++) {
+            String clave = in.readUTF();
+            Tally t = new Tally(in.readUTF());
+            t.wins = in.readInt();
+            if (scores) {
+                t.best = in.readInt();
+                t.total = in.readLong();
+            }
+            map.put(clave, t);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin inesperado del segmento");
+            }
+        }
+    }
+}
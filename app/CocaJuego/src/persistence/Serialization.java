@@ -1,10 +1,15 @@
 package persistence;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -14,21 +19,64 @@ public class Serialization {
 
     private static final String PATH = "Specs/data/equipos.ser";
 
+    // Tamaño del buffer de lectura y escritura
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+    private SerializationBackend backend;
+
     public Serialization(){
+        this(SerializationBackend.BINARY);
+    }
+
+    /**
+     * @param backend formato con el que se guardan los equipos
+     */
+    public Serialization(SerializationBackend backend) {
+        this(backend, Paths.get(PATH));
+    }
+
+    /**
+     * @param backend formato con el que se guardan los equipos
+     * @param path archivo donde se guardan los equipos
+     */
+    public Serialization(SerializationBackend backend, Path path) {
+        this.backend = backend;
+        this.path = path;
+    }
+
+    public SerializationBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * Cambia el formato de los próximos guardados. Lo ya guardado se sigue
+     * pudiendo cargar, ya que el formato se reconoce al leer.
+     * @param backend formato nuevo
+     */
+    public void setBackend(SerializationBackend backend) {
+        this.backend = backend;
     }
 
 
     /**
      * Serializa la lista de equipos, guardandola en un archivo .ser
+     * con el formato seleccionado
      * devuelve true si se pudo serializar correctamente, false en caso contrario
      * @param teams
      * @return
      */
     public boolean save(List<Team> teams) {
-        try (ObjectOutputStream out =
-                     new ObjectOutputStream(new FileOutputStream(PATH))) {
+        try (OutputStream out =
+                     new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE)) {
 
-            out.writeObject(teams);
+            if (backend == SerializationBackend.BINARY) {
+                new TeamCodec().write(teams, out);
+            } else {
+                ObjectOutputStream objects = new ObjectOutputStream(out);
+                objects.writeObject(teams);
+                objects.flush();
+            }
             return true;
 
         } catch (IOException e) {
@@ -39,14 +87,23 @@ public class Serialization {
 
     /**
      * Deserializa la lista de equipos, leyendo el archivo .ser
+     * en el formato en que haya sido guardado
      * devuelve la lista de equipos deserializada, o una lista vacia si no se pudo deserializar
      * @return
      */
     public List<Team> load() {
-        try (ObjectInputStream in =
-                     new ObjectInputStream(new FileInputStream(PATH))) {
+        try (InputStream in =
+                     new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+
+            byte[] cabecera = new byte[Integer.BYTES];
+            in.mark(cabecera.length);
+            int leidos = in.readNBytes(cabecera, 0, cabecera.length);
+            in.reset();
 
-            return (List<Team>) in.readObject();
+            if (TeamCodec.matches(cabecera, leidos)) {
+                return new TeamCodec().read(in);
+            }
+            return (List<Team>) new ObjectInputStream(in).readObject();
 
         }  catch (IOException e) {
         return new ArrayList<>();
@@ -0,0 +1,13 @@
+package persistence;
+
+/**
+ * Formato con el que {@link Serialization} guarda la lista de equipos.
+ * Al cargar, el formato se reconoce por los primeros bytes del archivo,
+ * así que cambiar de formato no impide leer lo guardado antes.
+ */
+public enum SerializationBackend {
+    /** Serialización de Java con {@code ObjectOutputStream}. */
+    JAVA,
+    /** Formato binario propio y versionado, ver {@link TeamCodec}. */
+    BINARY
+}
@@ -0,0 +1,413 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import modelo.Team;
+
+/**
+ * Diario de la partida en curso, para poder retomarla en el turno exacto
+ * si la aplicación se cierra antes de terminar.
+ *
+ * <p>Se compone de una foto completa del estado ({@code session.snapshot})
+ * y de un archivo al que solo se agregan los cambios posteriores
+ * ({@code session.journal}): los puntos de cada intento y cada cambio de
+ * turno. Al retomar se parte de la foto y se vuelven a aplicar los cambios.
+ * Cada cierto número de cambios se toma una foto nueva y el diario se vacía.</p>
+ *
+ * <p>Las escrituras se hacen en un hilo propio, en el orden en que se
+ * pidieron, para que la interfaz nunca espere al disco.</p>
+ *
+ * <p>Cada entrada del diario ocupa 16 bytes: identificador de la partida,
+ * número de secuencia, valor (puntos del intento o {@link #NEXT_TURN}) y
+ * un CRC32 de los 12 bytes anteriores. Al recuperar se descartan las
+ * entradas de otra partida, las ya incluidas en la foto y todo lo que
+ * sigue a una entrada dañada.</p>
+ *
+ * <p>Desde la versión 2 la foto guarda también la semilla de los intentos.
+ * Las fotos de la versión 1 se siguen leyendo, sin semilla.</p>
+ */
+public class SessionJournal {
+
+    /** Valor de las entradas que corresponden a un cambio de turno. */
+    public static final int NEXT_TURN = -1;
+
+    private static final String DIRECTORIO = "Specs/data";
+    private static final int SNAPSHOT_MAGIC = 0x434A5353; // "CJSS"
+    private static final short SNAPSHOT_VERSION = 2;
+    // Versión anterior, sin semilla
+    private static final short SNAPSHOT_VERSION_1 = 1;
+    private static final int ENTRY_SIZE = 16;
+
+    // Cambios entre una foto y la siguiente
+    private static final int SNAPSHOT_INTERVAL = 32;
+
+    /** Partida recuperada: la última foto y los cambios que le siguen. */
+    public static class Recovery {
+        private final SessionSnapshot snapshot;
+        private final int[] events;
+
+        private Recovery(SessionSnapshot snapshot, int[] events) {
+            this.snapshot = snapshot;
+            this.events = events;
+        }
+
+        public SessionSnapshot getSnapshot() { return snapshot; }
+
+        /**
+         * Cambios posteriores a la foto, en orden: puntos de cada intento
+         * (0 si falló) o {@link #NEXT_TURN}.
+         */
+        public int[] getEvents() { return events.clone(); }
+    }
+
+    private final Path snapshotPath;
+    private final Path journalPath;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "session-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Estado del hilo que llama; el hilo de escritura solo recibe valores
+    private int sessionId;
+    private int seq;
+    private int sinceSnapshot;
+    private boolean active;
+
+    // Solo se usan desde el hilo de escritura
+    private FileChannel channel;
+    private final ByteBuffer entry = ByteBuffer.allocate(ENTRY_SIZE);
+    private final CRC32 crc = new CRC32();
+
+    public SessionJournal() {
+        this(Paths.get(DIRECTORIO));
+    }
+
+    /**
+     * @param directorio carpeta donde se guardan la foto y el diario
+     */
+    public SessionJournal(Path directorio) {
+        this.snapshotPath = directorio.resolve("session.snapshot");
+        this.journalPath = directorio.resolve("session.journal");
+    }
+
+    /**
+     * Empieza el diario de una partida nueva con su estado inicial.
+     *
+     * @param inicial estado al comenzar la partida
+     */
+    public void start(SessionSnapshot inicial) {
+        sessionId = (int) System.nanoTime() ^ (int) System.currentTimeMillis();
+        seq = 0;
+        sinceSnapshot = 0;
+        active = true;
+        int id = sessionId;
+        writer.execute(() -> writeSnapshot(inicial, id, 0));
+    }
+
+    /**
+     * Registra el resultado de un intento del jugador actual.
+     *
+     * @param points puntos obtenidos, 0 si falló
+     */
+    public void attempt(int points) {
+        append(points);
+    }
+
+    /**
+     * Registra el paso al siguiente turno.
+     */
+    public void nextTurn() {
+        append(NEXT_TURN);
+    }
+
+    /**
+     * Indica si ya pasaron suficientes cambios como para tomar una foto nueva.
+     *
+     * @return true si conviene llamar a {@link #snapshot}
+     */
+    public boolean isSnapshotDue() {
+        return active && sinceSnapshot >= SNAPSHOT_INTERVAL;
+    }
+
+    /**
+     * Guarda una foto del estado actual y vacía el diario.
+     *
+     * @param estado estado de la partida tras el último cambio registrado
+     */
+    public void snapshot(SessionSnapshot estado) {
+        if (!active) {
+            return;
+        }
+        sinceSnapshot = 0;
+        int id = sessionId;
+        int ultima = seq;
+        writer.execute(() -> writeSnapshot(estado, id, ultima));
+    }
+
+    /**
+     * Borra la foto y el diario, por ejemplo al terminar la partida.
+     */
+    public void clear() {
+        active = false;
+        writer.execute(() -> {
+            try {
+                closeChannel();
+                Files.deleteIfExists(journalPath);
+                Files.deleteIfExists(snapshotPath);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Espera a que se terminen de escribir los cambios pendientes.
+     */
+    public void flush() {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Termina de escribir lo pendiente y cierra el diario.
+     */
+    public void close() {
+        writer.execute(this::closeChannel);
+        writer.shutdown();
+        try {
+            writer.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Indica, sin leerla, si hay una partida sin terminar para retomar.
+     *
+     * @return true si existe una foto guardada
+     */
+    public boolean hasSession() {
+        flush();
+        return Files.exists(snapshotPath);
+    }
+
+    /**
+     * Lee la última foto y los cambios que le siguen, descarta lo que quedó
+     * escrito a medias y deja el diario listo para seguir agregando cambios.
+     *
+     * @return partida recuperada, o null si no hay una partida guardada
+     */
+    public Recovery recover() {
+        try {
+            return writer.submit(this::readRecovery).get();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    private void append(int valor) {
+        if (!active) {
+            return;
+        }
+        int id = sessionId;
+        int numero = ++seq;
+        sinceSnapshot++;
+        writer.execute(() -> writeEntry(id, numero, valor));
+    }
+
+    // ─── HILO DE ESCRITURA ───────────────────────────────────────────────────
+
+    private void writeEntry(int id, int numero, int valor) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE);
+            }
+            entry.clear();
+            entry.putInt(id).putInt(numero).putInt(valor);
+            crc.reset();
+            crc.update(entry.array(), 0, 3 * Integer.BYTES);
+            entry.putInt((int) crc.getValue());
+            entry.flip();
+            long posicion = channel.size();
+            while (entry.hasRemaining()) {
+                posicion += channel.write(entry, posicion);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void writeSnapshot(SessionSnapshot estado, int id, int ultima) {
+        try {
+            Files.createDirectories(snapshotPath.toAbsolutePath().getParent());
+            Path tmp = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+            try (BufferedOutputStream buffered = new BufferedOutputStream(Files.newOutputStream(tmp))) {
+                DataOutputStream out = new DataOutputStream(buffered);
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeShort(SNAPSHOT_VERSION);
+                out.writeInt(id);
+                out.writeInt(ultima);
+                out.writeInt(estado.getCurrentTeamIndex());
+                out.writeInt(estado.getCurrentPlayerIndex());
+                Long seed = estado.getSeed();
+                out.writeBoolean(seed != null);
+                out.writeLong(seed != null ? seed : 0L);
+                List<Team> teams = estado.getTeams();
+                new TeamCodec().write(teams, out);
+                for (int t = 0; t < teams.size(); t++) {
+                    out.writeInt(estado.getPoints(t));
+                    out.writeInt(estado.getAttempts(t));
+                    out.writeInt(estado.getEmbocadas(t));
+                }
+                out.flush();
+            }
+            try {
+                Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            // Lo anterior a la foto ya no hace falta; si se corta antes de
+            // vaciar el diario, al recuperar se saltan esas entradas
+            closeChannel();
+            channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE);
+            channel.truncate(0);
+            channel.force(true);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private Recovery readRecovery() throws IOException {
+        if (!Files.exists(snapshotPath)) {
+            return null;
+        }
+        int id;
+        int ultima;
+        int teamIndex;
+        int playerIndex;
+        Long seed = null;
+        List<Team> teams;
+        int[] points;
+        int[] attempts;
+        int[] embocadas;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC) {
+                return null;
+            }
+            short version = in.readShort();
+            if (version != SNAPSHOT_VERSION && version != SNAPSHOT_VERSION_1) {
+                return null;
+            }
+            id = in.readInt();
+            ultima = in.readInt();
+            teamIndex = in.readInt();
+            playerIndex = in.readInt();
+            if (version >= SNAPSHOT_VERSION) {
+                boolean tieneSemilla = in.readBoolean();
+                long valor = in.readLong();
+                seed = tieneSemilla ? valor : null;
+            }
+            teams = new TeamCodec().read(in);
+            points = new int[teams.size()];
+            attempts = new int[teams.size()];
+            embocadas = new int[teams.size()];
+            for (int t = 0; t < teams.size(); t++) {
+                points[t] = in.readInt();
+                attempts[t] = in.readInt();
+                embocadas[t] = in.readInt();
+            }
+        }
+
+        int[] events = new int[16];
+        int cantidad = 0;
+        int esperada = ultima + 1;
+        long valido = 0;
+        closeChannel();
+        channel = FileChannel.open(journalPath, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        long size = channel.size();
+        for (long posicion = 0; posicion + ENTRY_SIZE <= size; posicion += ENTRY_SIZE) {
+            entry.clear();
+            while (entry.hasRemaining()) {
+                if (channel.read(entry, posicion + entry.position()) < 0) {
+                    break;
+                }
+            }
+            crc.reset();
+            crc.update(entry.array(), 0, 3 * Integer.BYTES);
+            if (entry.getInt(12) != (int) crc.getValue() || entry.getInt(0) != id) {
+                break;
+            }
+            int numero = entry.getInt(4);
+            if (numero < esperada) {
+                valido = posicion + ENTRY_SIZE; // ya incluida en la foto
+                continue;
+            }
+            if (numero != esperada) {
+                break;
+            }
+            if (cantidad == events.length) {
+                events = Arrays.copyOf(events, cantidad * 2);
+            }
+            events[cantidad++] = entry.getInt(8);
+            esperada++;
+            valido = posicion + ENTRY_SIZE;
+        }
+        if (valido < size) {
+            System.err.println(journalPath + ": se descartaron " + (size - valido)
+                    + " bytes dañados o incompletos al final");
+            channel.truncate(valido);
+            channel.force(true);
+        }
+
+        // Se sigue escribiendo la misma partida a continuación
+        sessionId = id;
+        seq = esperada - 1;
+        sinceSnapshot = cantidad;
+        active = true;
+
+        SessionSnapshot snapshot = new SessionSnapshot(teams, points, attempts, embocadas,
+                teamIndex, playerIndex, seed);
+        return new Recovery(snapshot, Arrays.copyOf(events, cantidad));
+    }
+
+    private void closeChannel() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            channel = null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package persistence;
+
+import java.util.List;
+
+import modelo.Team;
+
+/**
+ * Estado completo de una partida en un momento dado: equipos en orden de
+ * juego, estadísticas de cada uno, turno actual y semilla de los intentos.
+ * Las estadísticas se indican por posición dentro de la lista de equipos.
+ */
+public class SessionSnapshot {
+
+    private final List<Team> teams;
+    private final int[] points;
+    private final int[] attempts;
+    private final int[] embocadas;
+    private final int currentTeamIndex;
+    private final int currentPlayerIndex;
+    private final Long seed;
+
+    /**
+     * @param teams equipos en orden de juego
+     * @param points puntos de cada equipo
+     * @param attempts intentos de cada equipo
+     * @param embocadas embocadas de cada equipo
+     * @param currentTeamIndex índice del equipo que está jugando
+     * @param currentPlayerIndex índice del jugador actual dentro del equipo
+     * @param seed semilla de los intentos de la partida, o null si no tiene
+     */
+    public SessionSnapshot(List<Team> teams, int[] points, int[] attempts, int[] embocadas,
+                           int currentTeamIndex, int currentPlayerIndex, Long seed) {
+        this.teams = teams;
+        this.points = points.clone();
+        this.attempts = attempts.clone();
+        this.embocadas = embocadas.clone();
+        this.currentTeamIndex = currentTeamIndex;
+        this.currentPlayerIndex = currentPlayerIndex;
+        this.seed = seed;
+    }
+
+    public List<Team> getTeams() { return teams; }
+    public int getPoints(int team) { return points[team]; }
+    public int getAttempts(int team) { return attempts[team]; }
+    public int getEmbocadas(int team) { return embocadas[team]; }
+    public int getCurrentTeamIndex() { return currentTeamIndex; }
+    public int getCurrentPlayerIndex() { return currentPlayerIndex; }
+
+    /**
+     * @return semilla de los intentos, o null si la partida no tiene o se
+     *         guardó con una versión que no la registraba
+     */
+    public Long getSeed() { return seed; }
+}
@@ -0,0 +1,172 @@
+package persistence;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import modelo.Player;
+import modelo.Team;
+
+/**
+ * Codifica la lista de equipos en un formato binario propio, sin los
+ * descriptores de clase ni la reflexión de la serialización de Java.
+ *
+ * <pre>
+ *  encabezado   magic "CJTB" (int), versión (short), cantidad de equipos (int)
+ *  equipo       proyecto, nombre (texto), pin (int), cantidad de jugadores (int)
+ *  jugador      nombre (texto), código (int)
+ *  texto        largo en bytes (int, -1 si es null) seguido de los bytes UTF-8
+ * </pre>
+ *
+ * <p>Al leer se rechazan las versiones posteriores a la que conoce esta clase;
+ * las anteriores se deben seguir leyendo cuando cambie el formato.</p>
+ */
+class TeamCodec {
+
+    static final int MAGIC = 0x434A5442; // "CJTB"
+    static final short VERSION = 1;
+
+    // Largo máximo aceptado para un texto al leer
+    private static final int MAX_TEXT = 1 << 20;
+
+    TeamCodec() {
+    }
+
+    /**
+     * Escribe la lista de equipos completa. El flujo no se cierra.
+     *
+     * @param teams equipos a escribir
+     * @param output flujo de salida, idealmente con buffer
+     * @return posición de cada equipo, en bytes desde el inicio de lo escrito
+     * @throws IOException si no se pudo escribir
+     */
+    long[] write(List<Team> teams, OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        long[] offsets = new long[teams.size()];
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeInt(teams.size());
+        for (int t = 0; t < teams.size(); t++) {
+            offsets[t] = out.size();
+            writeTeam(teams.get(t), out);
+        }
+        out.flush();
+        return offsets;
+    }
+
+    /**
+     * Escribe un solo equipo, sin encabezado. Se lee con {@link #readTeam}.
+     *
+     * @param team equipo a escribir
+     * @param out flujo de salida
+     * @throws IOException si no se pudo escribir
+     */
+    void writeTeam(Team team, DataOutputStream out) throws IOException {
+        writeText(out, team.getProyect());
+        writeText(out, team.getName());
+        out.writeInt(team.getPin());
+        List<Player> players = team.getPlayers();
+        out.writeInt(players.size());
+        for (Player player : players) {
+            writeText(out, player.getName());
+            out.writeInt(player.getCode());
+        }
+    }
+
+    /**
+     * Lee una lista de equipos escrita con {@link #write}.
+     *
+     * @param input flujo de entrada, idealmente con buffer
+     * @return equipos leídos
+     * @throws IOException si el contenido no es válido o no se pudo leer
+     */
+    List<Team> read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("No es un archivo de equipos binario");
+        }
+        short version = in.readShort();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Versión de archivo de equipos no soportada: " + version);
+        }
+
+        int cantidad = count(in.readInt());
+        // La capacidad inicial se limita por si la cantidad está dañada
+        List<Team> teams = new ArrayList<>(Math.min(cantidad, 1 << 16));
+        for (int t = 0; t < cantidad; t++) {
+            teams.add(readTeam(in));
+        }
+        return teams;
+    }
+
+    /**
+     * Lee un solo equipo desde la posición en que lo dejó {@link #write}.
+     *
+     * @param input flujo posicionado al inicio del equipo
+     * @return equipo leído
+     * @throws IOException si el contenido no es válido o no se pudo leer
+     */
+    Team readTeam(InputStream input) throws IOException {
+        DataInputStream in = input instanceof DataInputStream
+                ? (DataInputStream) input
+                : new DataInputStream(input);
+        String proyect = readText(in);
+        String name = readText(in);
+        int pin = in.readInt();
+        int jugadores = count(in.readInt());
+        List<Player> players = new ArrayList<>(Math.min(jugadores, 16));
+        for (int p = 0; p < jugadores; p++) {
+            String nombre = readText(in);
+            players.add(new Player(nombre, in.readInt()));
+        }
+        return new Team(proyect, name, players, pin);
+    }
+
+    /**
+     * Indica si los primeros bytes corresponden a este formato.
+     *
+     * @param cabecera primeros bytes del archivo
+     * @param largo cantidad de bytes válidos en la cabecera
+     * @return true si empieza con el magic de este formato
+     */
+    static boolean matches(byte[] cabecera, int largo) {
+        return largo >= Integer.BYTES
+                && ((cabecera[0] & 0xFF) << 24 | (cabecera[1] & 0xFF) << 16
+                    | (cabecera[2] & 0xFF) << 8 | (cabecera[3] & 0xFF)) == MAGIC;
+    }
+
+    private static void writeText(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readText(DataInputStream in) throws IOException {
+        int largo = in.readInt();
+        if (largo == -1) {
+            return null;
+        }
+        if (largo > MAX_TEXT) {
+            throw new IOException("Archivo de equipos dañado: texto de " + largo + " bytes");
+        }
+        byte[] bytes = new byte[count(largo)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int count(int valor) throws IOException {
+        if (valor < 0) {
+            throw new IOException("Archivo de equipos dañado: cantidad negativa");
+        }
+        return valor;
+    }
+}
@@ -0,0 +1,368 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import modelo.Player;
+import modelo.Team;
+
+/**
+ * Importa muchos equipos de una vez, desde un archivo con varios equipos o
+ * desde una carpeta de archivos.
+ *
+ * <p>Acepta dos formatos de archivo. El de varios equipos es el del cargador
+ * anterior, con el PIN agregado:</p>
+ * <pre>
+ * equipos.cantidad=2
+ * equipo1.proyecto=Ingenieria de Sistemas
+ * equipo1.nombre=Los Compiladores
+ * equipo1.pin=1234
+ * equipo1.jugador1.codigo=20231001
+ * equipo1.jugador1.nombre=Juan Perez
+ * ...
+ * </pre>
+ * <p>Los archivos del cargador anterior no tienen {@code equipoN.pin}: a
+ * esos equipos se les asigna un PIN al azar de cuatro cifras, que se informa
+ * como aviso en el {@link ImportReport}. El otro formato es el de un solo
+ * equipo que escribe {@link SavedTeams}.</p>
+ *
+ * <p>Los archivos se leen una sola vez con {@link PropertiesReader}, el
+ * mismo lector de {@link TeamPropertiesParser}: cada clave con prefijo
+ * {@code equipoN.} se guarda directamente en los datos de su equipo, sin
+ * conservar el texto. Después los equipos de cada archivo se arman y
+ * validan en paralelo. Una entrada con errores se informa en el
+ * {@link ImportReport} y no detiene el resto de la importación.</p>
+ */
+public class TeamImporter {
+
+    /** Jugadores que debe tener cada equipo importado. */
+    public static final int PLAYERS_PER_TEAM = 3;
+
+    private static final String PREFIJO = "equipo";
+    private static final String CANTIDAD = "equipos.cantidad";
+    private static final String EXTENSION = ".properties";
+
+    /** Datos de un equipo de un archivo de varios equipos, a medida que se leen. */
+    private static class Draft {
+        final int numero;
+        String proyecto;
+        String nombre;
+        String pin;
+        // Por número de jugador: código y nombre
+        final Map<Integer, String[]> jugadores = new TreeMap<>();
+
+        Draft(int numero) {
+            this.numero = numero;
+        }
+    }
+
+    /** Equipo leído o problema encontrado en una entrada. */
+    private static class Result {
+        final String source;
+        final String entry;
+        final Team team;
+        final String problem;
+        // Aviso de un equipo importado, por ejemplo el PIN asignado
+        final String warning;
+
+        Result(String source, String entry, Team team, String problem) {
+            this(source, entry, team, problem, null);
+        }
+
+        Result(String source, String entry, Team team, String problem, String warning) {
+            this.source = source;
+            this.entry = entry;
+            this.team = team;
+            this.problem = problem;
+            this.warning = warning;
+        }
+    }
+
+    /**
+     * Importa un archivo o todos los .properties de una carpeta. Los archivos
+     * se procesan en paralelo; el informe conserva el orden de los archivos
+     * (por nombre) y de los equipos dentro de cada uno.
+     *
+     * <p>Además de validar cada equipo, se descartan los que repiten el
+     * nombre o algún código de jugador de un equipo anterior.</p>
+     *
+     * @param source archivo o carpeta a importar
+     * @return equipos válidos y entradas descartadas
+     * @throws IOException si no se pudo listar la carpeta
+     */
+    public ImportReport importPath(Path source) throws IOException {
+        List<Path> archivos = new ArrayList<>();
+        if (Files.isDirectory(source)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(source, "*" + EXTENSION)) {
+                for (Path file : stream) {
+                    archivos.add(file);
+                }
+            }
+            Collections.sort(archivos);
+        } else {
+            archivos.add(source);
+        }
+
+        List<List<Result>> porArchivo = archivos.parallelStream()
+                .map(this::importFile)
+                .collect(Collectors.toList());
+
+        List<Team> teams = new ArrayList<>();
+        List<ImportReport.Problem> problems = new ArrayList<>();
+        List<ImportReport.Problem> warnings = new ArrayList<>();
+        Set<String> nombres = new HashSet<>();
+        Set<Integer> codigos = new HashSet<>();
+        for (List<Result> resultados : porArchivo) {
+            for (Result r : resultados) {
+                String problema = r.problem != null ? r.problem : checkDuplicates(r.team, nombres, codigos);
+                if (problema != null) {
+                    problems.add(new ImportReport.Problem(r.source, r.entry, problema));
+                    continue;
+                }
+                nombres.add(key(r.team.getName()));
+                for (Player player : r.team.getPlayers()) {
+                    codigos.add(player.getCode());
+                }
+                teams.add(r.team);
+                if (r.warning != null) {
+                    warnings.add(new ImportReport.Problem(r.source, r.entry, r.warning));
+                }
+            }
+        }
+        return new ImportReport(teams, problems, warnings);
+    }
+
+    // ─── LECTURA DE ARCHIVOS ─────────────────────────────────────────────────
+
+    private List<Result> importFile(Path file) {
+        String source = file.toString();
+        Map<Integer, Draft> equipos = new TreeMap<>();
+        Map<String, String> comunes = new HashMap<>();
+
+        // ISO-8859-1, igual que Properties.load(InputStream)
+        PropertiesReader reader = new PropertiesReader();
+        try (InputStream in = Files.newInputStream(file)) {
+            reader.open(in);
+            while (reader.readEntry(source)) {
+                String clave = reader.key();
+                int numero = teamNumber(clave);
+                if (numero > 0) {
+                    apply(equipos.computeIfAbsent(numero, Draft::new), clave, reader.value());
+                } else {
+                    comunes.put(clave, reader.value());
+                }
+            }
+        } catch (IOException e) {
+            return List.of(new Result(source, null, null, "no se pudo leer: " + e.getMessage()));
+        } finally {
+            reader.release();
+        }
+
+        if (equipos.isEmpty()) {
+            if (comunes.get("name") == null) {
+                return List.of(new Result(source, null, null, "no tiene equipos"));
+            }
+            return List.of(readSingle(file));
+        }
+        return readMultiple(source, comunes, equipos);
+    }
+
+    /**
+     * Guarda un valor con prefijo {@code equipoN.} en los datos del equipo.
+     * Como en {@link Properties}, si una clave se repite vale la última.
+     */
+    private static void apply(Draft draft, String clave, String valor) {
+        String campo = clave.substring(clave.indexOf('.') + 1);
+        switch (campo) {
+            case "proyecto": draft.proyecto = valor; return;
+            case "nombre":   draft.nombre = valor;   return;
+            case "pin":      draft.pin = valor;      return;
+            default:         break;
+        }
+        // jugadorJ.codigo o jugadorJ.nombre, con J sin ceros a la izquierda
+        int punto = campo.indexOf('.');
+        if (!campo.startsWith("jugador") || punto < 0) {
+            return;
+        }
+        String digitos = campo.substring("jugador".length(), punto);
+        String dato = campo.substring(punto + 1);
+        int slot = dato.equals("codigo") ? 0 : dato.equals("nombre") ? 1 : -1;
+        if (slot < 0 || digitos.isEmpty() || digitos.length() > 9
+                || !digitos.chars().allMatch(Character::isDigit)
+                || (digitos.length() > 1 && digitos.charAt(0) == '0')) {
+            return;
+        }
+        draft.jugadores.computeIfAbsent(Integer.parseInt(digitos), j -> new String[2])[slot] = valor;
+    }
+
+    private Result readSingle(Path file) {
+        String source = file.toString();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            Team team = TeamPropertiesParser.local().parse(in, source);
+            return result(source, null, team, validate(team));
+        } catch (IOException e) {
+            return new Result(source, null, null, e.getMessage());
+        }
+    }
+
+    private List<Result> readMultiple(String source, Map<String, String> comunes, Map<Integer, Draft> equipos) {
+        List<Result> resultados = new ArrayList<>();
+        int cantidad = -1;
+        String textoCantidad = comunes.get(CANTIDAD);
+        if (textoCantidad != null) {
+            try {
+                cantidad = Integer.parseInt(textoCantidad.trim());
+            } catch (NumberFormatException e) {
+                resultados.add(new Result(source, CANTIDAD, null, "no es un número: " + textoCantidad));
+            }
+        }
+        for (int i = 1; i <= cantidad; i++) {
+            if (!equipos.containsKey(i)) {
+                resultados.add(new Result(source, PREFIJO + i, null, "no está en el archivo"));
+            }
+        }
+
+        // Cada equipo se arma y valida en paralelo; la lista conserva el orden
+        int limite = cantidad;
+        resultados.addAll(equipos.values().parallelStream()
+                .map(draft -> limite >= 0 && draft.numero > limite
+                        ? new Result(source, PREFIJO + draft.numero, null,
+                                "sobra: " + CANTIDAD + " es " + limite)
+                        : readDraft(source, draft))
+                .collect(Collectors.toList()));
+        return resultados;
+    }
+
+    private Result readDraft(String source, Draft draft) {
+        String entry = PREFIJO + draft.numero;
+        String proyecto = trimmed(draft.proyecto);
+        String nombre = trimmed(draft.nombre);
+        String pin = trimmed(draft.pin);
+        if (nombre == null) return new Result(source, entry, null, "falta el nombre");
+        if (proyecto == null) return new Result(source, entry, null, "falta el proyecto");
+
+        try {
+            List<Player> players = new ArrayList<>();
+            for (int j = 1; ; j++) {
+                String[] jugador = draft.jugadores.get(j);
+                String codigo = jugador != null ? trimmed(jugador[0]) : null;
+                String nombreJugador = jugador != null ? trimmed(jugador[1]) : null;
+                if (codigo == null && nombreJugador == null) {
+                    break;
+                }
+                if (codigo == null || nombreJugador == null) {
+                    return new Result(source, entry, null, "el jugador " + j + " está incompleto");
+                }
+                players.add(new Player(nombreJugador, Integer.parseInt(codigo)));
+            }
+
+            String aviso = null;
+            int pinEquipo;
+            if (pin != null) {
+                pinEquipo = Integer.parseInt(pin);
+            } else {
+                // Formato del cargador anterior, que no tenía PIN
+                pinEquipo = 1000 + ThreadLocalRandom.current().nextInt(9000);
+                aviso = "no tenía PIN; se le asignó el " + pinEquipo;
+            }
+            Team team = new Team(proyecto, nombre, players, pinEquipo);
+            String problema = validate(team);
+            return problema == null ? new Result(source, entry, team, null, aviso)
+                                    : new Result(source, entry, null, problema);
+        } catch (NumberFormatException e) {
+            return new Result(source, entry, null, "el PIN y los códigos deben ser numéricos");
+        }
+    }
+
+    // ─── VALIDACIÓN ──────────────────────────────────────────────────────────
+
+    /**
+     * @return motivo por el que el equipo no es válido, o null si lo es
+     */
+    private static String validate(Team team) {
+        if (team.getName() == null || team.getName().trim().isEmpty()) {
+            return "falta el nombre";
+        }
+        if (team.getProyect() == null || team.getProyect().trim().isEmpty()) {
+            return "falta el proyecto";
+        }
+        if (team.getCantPlayers() != PLAYERS_PER_TEAM) {
+            return "tiene " + team.getCantPlayers() + " jugadores y debe tener " + PLAYERS_PER_TEAM;
+        }
+        Set<Integer> codigos = new HashSet<>();
+        for (Player player : team.getPlayers()) {
+            if (player.getName() == null || player.getName().trim().isEmpty()) {
+                return "hay un jugador sin nombre";
+            }
+            if (!codigos.add(player.getCode())) {
+                return "el código " + player.getCode() + " está repetido en el equipo";
+            }
+        }
+        return null;
+    }
+
+    private static String checkDuplicates(Team team, Set<String> nombres, Set<Integer> codigos) {
+        if (nombres.contains(key(team.getName()))) {
+            return "ya se importó otro equipo llamado " + team.getName();
+        }
+        for (Player player : team.getPlayers()) {
+            if (codigos.contains(player.getCode())) {
+                return "el código " + player.getCode() + " ya está en otro equipo";
+            }
+        }
+        return null;
+    }
+
+    // ─── AUXILIARES ──────────────────────────────────────────────────────────
+
+    private static Result result(String source, String entry, Team team, String problema) {
+        return problema == null ? new Result(source, entry, team, null)
+                                : new Result(source, entry, null, problema);
+    }
+
+    private static String trimmed(String value) {
+        if (value == null) {
+            return null;
+        }
+        value = value.trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * @return N si la clave tiene el prefijo {@code equipoN.}, o 0 si no
+     */
+    private static int teamNumber(String clave) {
+        if (!clave.startsWith(PREFIJO)) {
+            return 0;
+        }
+        int i = PREFIJO.length();
+        int numero = 0;
+        int digitos = 0;
+        while (i < clave.length() && Character.isDigit(clave.charAt(i)) && digitos < 9) {
+            numero = numero * 10 + (clave.charAt(i) - '0');
+            digitos++;
+            i++;
+        }
+        return digitos > 0 && i < clave.length() && clave.charAt(i) == '.' ? numero : 0;
+    }
+
+    private static String key(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
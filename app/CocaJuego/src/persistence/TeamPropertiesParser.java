@@ -0,0 +1,187 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import modelo.Player;
+import modelo.Team;
+
+/**
+ * Lector del archivo .properties de un equipo (el formato de {@link SavedTeams})
+ * que arma el {@link Team} a medida que lee, sin pasar por
+ * {@link java.util.Properties}.
+ *
+ * <p>Las entradas se leen con {@link PropertiesReader}, que sigue las reglas
+ * de {@link java.util.Properties#load(Reader)}. Las claves se reconocen sobre
+ * los caracteres leídos y los números se convierten sin crear cadenas; solo
+ * se crean cadenas para el proyecto y los nombres.
+ * Si una clave se repite, vale la última, como en {@code Properties}.</p>
+ *
+ * <p>Cada instancia reutiliza sus buffers entre lecturas, así que no se debe
+ * usar desde varios hilos a la vez; {@link #local()} da una por hilo.</p>
+ */
+public class TeamPropertiesParser {
+
+    private static final ThreadLocal<TeamPropertiesParser> LOCAL =
+            ThreadLocal.withInitial(TeamPropertiesParser::new);
+
+    // Jugadores que se aceptan como máximo en players.count
+    private static final int MAX_PLAYERS = 1024;
+
+    private static final char[] PROYECT = "proyect".toCharArray();
+    private static final char[] NAME = "name".toCharArray();
+    private static final char[] PIN = "pin".toCharArray();
+    private static final char[] PLAYERS_COUNT = "players.count".toCharArray();
+    private static final char[] PLAYER = "player".toCharArray();
+    private static final char[] DOT_NAME = ".name".toCharArray();
+    private static final char[] DOT_CODE = ".code".toCharArray();
+
+    private final PropertiesReader in = new PropertiesReader();
+
+    // Equipo en curso
+    private String proyect;
+    private String name;
+    private int pin;
+    private boolean pinValid;
+    private int playersCount;
+    private boolean playersCountValid;
+    private String[] playerNames = new String[4];
+    private int[] playerCodes = new int[4];
+    private boolean[] playerCodesValid = new boolean[4];
+    private int playerSlots;
+
+    public TeamPropertiesParser() {
+    }
+
+    /**
+     * @return lector propio del hilo actual
+     */
+    public static TeamPropertiesParser local() {
+        return LOCAL.get();
+    }
+
+    /**
+     * Lee un equipo de un flujo en ISO-8859-1, igual que
+     * {@link java.util.Properties#load(InputStream)}. El flujo no se cierra.
+     *
+     * @param in flujo del archivo
+     * @param source origen del flujo, para los mensajes de error
+     * @return equipo leído
+     * @throws IOException si no se pudo leer, faltan datos o hay valores inválidos
+     */
+    public Team parse(InputStream in, Object source) throws IOException {
+        this.in.open(in);
+        return parse(source);
+    }
+
+    /**
+     * Lee un equipo de un flujo de caracteres. El flujo no se cierra.
+     *
+     * @param in flujo del archivo
+     * @param source origen del flujo, para los mensajes de error
+     * @return equipo leído
+     * @throws IOException si no se pudo leer, faltan datos o hay valores inválidos
+     */
+    public Team parse(Reader in, Object source) throws IOException {
+        this.in.open(in);
+        return parse(source);
+    }
+
+    private Team parse(Object source) throws IOException {
+        proyect = null;
+        name = null;
+        pinValid = false;
+        playersCountValid = false;
+        Arrays.fill(playerNames, 0, playerSlots, null);
+        Arrays.fill(playerCodesValid, 0, playerSlots, false);
+        playerSlots = 0;
+        try {
+            while (in.readEntry(source)) {
+                apply();
+            }
+        } finally {
+            in.release();
+        }
+        return build(source);
+    }
+
+    // ─── EQUIPO ──────────────────────────────────────────────────────────────
+
+    private void apply() {
+        if (in.keyIs(PROYECT)) {
+            proyect = in.value();
+        } else if (in.keyIs(NAME)) {
+            name = in.value();
+        } else if (in.keyIs(PIN)) {
+            pinValid = in.parseValue();
+            pin = in.parsed();
+        } else if (in.keyIs(PLAYERS_COUNT)) {
+            playersCountValid = in.parseValue();
+            playersCount = in.parsed();
+        } else if (in.startsWith(PLAYER)) {
+            applyPlayer();
+        }
+    }
+
+    /** Claves {@code playerN.name} y {@code playerN.code}, con N desde 1 y sin ceros a la izquierda. */
+    private void applyPlayer() {
+        int keyLength = in.keyLength();
+        int i = PLAYER.length;
+        if (i >= keyLength || in.keyAt(i) < '1' || in.keyAt(i) > '9') {
+            return;
+        }
+        int numero = 0;
+        while (i < keyLength && in.keyAt(i) >= '0' && in.keyAt(i) <= '9') {
+            numero = numero * 10 + (in.keyAt(i) - '0');
+            if (numero > MAX_PLAYERS) {
+                return;
+            }
+            i++;
+        }
+        boolean esNombre = in.endsAt(i, DOT_NAME);
+        if (!esNombre && !in.endsAt(i, DOT_CODE)) {
+            return;
+        }
+        int slot = numero - 1;
+        ensurePlayerSlot(slot);
+        if (esNombre) {
+            playerNames[slot] = in.value();
+        } else {
+            playerCodesValid[slot] = in.parseValue();
+            playerCodes[slot] = in.parsed();
+        }
+    }
+
+    /** Mismos errores que la lectura anterior con {@link java.util.Properties}. */
+    private Team build(Object source) throws IOException {
+        if (!pinValid || !playersCountValid || playersCount > MAX_PLAYERS) {
+            throw new IOException(source + " tiene un valor numérico inválido");
+        }
+        List<Player> players = new ArrayList<>(Math.max(playersCount, 0));
+        for (int i = 0; i < playersCount; i++) {
+            if (i >= playerSlots || !playerCodesValid[i]) {
+                throw new IOException(source + " tiene un valor numérico inválido");
+            }
+            players.add(new Player(playerNames[i], playerCodes[i]));
+        }
+        if (name == null) {
+            throw new IOException(source + " no tiene nombre de equipo");
+        }
+        return new Team(proyect, name, players, pin);
+    }
+
+    private void ensurePlayerSlot(int slot) {
+        if (slot >= playerNames.length) {
+            int capacidad = Math.max(slot + 1, playerNames.length * 2);
+            playerNames = Arrays.copyOf(playerNames, capacidad);
+            playerCodes = Arrays.copyOf(playerCodes, capacidad);
+            playerCodesValid = Arrays.copyOf(playerCodesValid, capacidad);
+        }
+        playerSlots = Math.max(playerSlots, slot + 1);
+    }
+
+}
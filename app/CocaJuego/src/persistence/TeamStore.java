@@ -0,0 +1,543 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+
+import modelo.Player;
+import modelo.Team;
+
+/**
+ * Almacén de equipos en un solo archivo ({@value #RUTA}), en lugar de un
+ * .properties por equipo.
+ *
+ * <pre>
+ *  encabezado   magic "CJTS" (int), versión (short)
+ *  registro     largo del contenido (int), CRC32 del tipo y el contenido (int),
+ *               tipo (byte), contenido
+ *  PUT          equipo en el formato de {@link TeamCodec#writeTeam}
+ *  DELETE       nombre del equipo en UTF-8
+ * </pre>
+ *
+ * <p>Guardar un equipo agrega un registro al final; la versión anterior queda
+ * en el archivo como espacio muerto. En memoria se guarda solo la posición
+ * del registro vigente de cada equipo y los códigos de sus jugadores, así que
+ * leer un equipo es una sola lectura posicionada. Cuando el espacio muerto
+ * supera al vigente, y al menos {@value #COMPACT_MIN} bytes, el archivo se
+ * reescribe solo con los registros vigentes.</p>
+ *
+ * <p>Al abrir se recorre el archivo para armar el índice. Si el final quedó
+ * a medio escribir o dañado, se descarta desde el primer registro inválido.
+ * Los nombres se comparan sin distinguir mayúsculas.</p>
+ */
+public class TeamStore implements AutoCloseable {
+
+    private static final String RUTA = "Specs/data/teams.db";
+    private static final int MAGIC = 0x434A5453; // "CJTS"
+    private static final short VERSION = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+    private static final int RECORD_HEADER = Integer.BYTES + Integer.BYTES + 1;
+    private static final byte PUT = 1;
+    private static final byte DELETE = 2;
+
+    // Largo máximo aceptado para un registro al leer
+    private static final int MAX_RECORD = 1 << 22;
+
+    // Tamaño a partir del cual se escribe el lote acumulado en putAll
+    private static final int BATCH_BYTES = 1 << 20;
+
+    /** Espacio muerto mínimo para compactar. */
+    static final long COMPACT_MIN = 256 * 1024;
+
+    /** Posición del registro vigente de un equipo. */
+    private static class Slot {
+        final long offset;
+        final int length;
+        final String name;
+        final int[] codes;
+
+        Slot(long offset, int length, String name, int[] codes) {
+            this.offset = offset;
+            this.length = length;
+            this.name = name;
+            this.codes = codes;
+        }
+    }
+
+    private final Path ruta;
+    private final TeamCodec codec = new TeamCodec();
+    private final Map<String, Slot> byName = new HashMap<>();
+    private final Map<Integer, Slot> byCode = new HashMap<>();
+    private FileChannel channel;
+    private long end;
+    private long live;
+
+    public TeamStore() {
+        this(Paths.get(RUTA));
+    }
+
+    /**
+     * @param ruta archivo del almacén; se crea al primer uso si no existe
+     */
+    public TeamStore(Path ruta) {
+        this.ruta = ruta;
+    }
+
+    // ─── CONSULTAS ───────────────────────────────────────────────────────────
+
+    /**
+     * @return true si el archivo del almacén ya existe
+     */
+    public boolean exists() {
+        return Files.exists(ruta);
+    }
+
+    /**
+     * @param name nombre del equipo
+     * @return equipo guardado con ese nombre, o null si no está
+     * @throws IOException si no se pudo leer
+     */
+    public synchronized Team get(String name) throws IOException {
+        open();
+        return read(byName.get(key(name)));
+    }
+
+    /**
+     * @param code código de un jugador
+     * @return equipo guardado al que pertenece, o null si no está
+     * @throws IOException si no se pudo leer
+     */
+    public synchronized Team findByPlayerCode(int code) throws IOException {
+        open();
+        return read(byCode.get(code));
+    }
+
+    /**
+     * @return nombres de los equipos guardados, en orden alfabético
+     * @throws IOException si no se pudo abrir el almacén
+     */
+    public synchronized List<String> names() throws IOException {
+        open();
+        return byName.values().stream()
+                .map(slot -> slot.name)
+                .sorted(String.CASE_INSENSITIVE_ORDER)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return cantidad de equipos guardados
+     * @throws IOException si no se pudo abrir el almacén
+     */
+    public synchronized int size() throws IOException {
+        open();
+        return byName.size();
+    }
+
+    // ─── ESCRITURA ───────────────────────────────────────────────────────────
+
+    /**
+     * Guarda un equipo; si ya había uno con el mismo nombre, lo reemplaza.
+     *
+     * @param team equipo a guardar
+     * @throws IOException si no se pudo escribir
+     */
+    public void put(Team team) throws IOException {
+        putAll(List.of(team));
+    }
+
+    /**
+     * Guarda varios equipos con una escritura por lote y una sola
+     * sincronización con el disco al final.
+     *
+     * @param teams equipos a guardar
+     * @throws IOException si no se pudo escribir
+     */
+    public synchronized void putAll(Collection<Team> teams) throws IOException {
+        open();
+        ByteArrayOutputStream lote = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(lote);
+        ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+        DataOutputStream equipo = new DataOutputStream(contenido);
+        List<Team> pendientes = new ArrayList<>();
+
+        for (Team team : teams) {
+            if (team.getName() == null || team.getName().trim().isEmpty()) {
+                throw new IllegalArgumentException("El equipo no tiene nombre");
+            }
+            contenido.reset();
+            codec.writeTeam(team, equipo);
+            writeRecord(out, PUT, contenido);
+            pendientes.add(team);
+            if (lote.size() >= BATCH_BYTES) {
+                appendBatch(lote, pendientes);
+            }
+        }
+        appendBatch(lote, pendientes);
+        channel.force(false);
+        compactIfNeeded();
+    }
+
+    /**
+     * Borra un equipo guardado.
+     *
+     * @param name nombre del equipo
+     * @return true si estaba guardado
+     * @throws IOException si no se pudo escribir
+     */
+    public synchronized boolean delete(String name) throws IOException {
+        open();
+        Slot slot = byName.get(key(name));
+        if (slot == null) {
+            return false;
+        }
+        ByteArrayOutputStream registro = new ByteArrayOutputStream();
+        ByteArrayOutputStream contenido = new ByteArrayOutputStream();
+        contenido.write(slot.name.getBytes(StandardCharsets.UTF_8));
+        writeRecord(new DataOutputStream(registro), DELETE, contenido);
+        writeFully(ByteBuffer.wrap(registro.toByteArray()), end);
+        end += registro.size();
+        unindex(slot);
+        channel.force(false);
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Reescribe el archivo solo con los registros vigentes. Se hace sola
+     * cuando el espacio muerto supera al vigente.
+     *
+     * @throws IOException si no se pudo reescribir; el archivo anterior queda intacto
+     */
+    public synchronized void compact() throws IOException {
+        open();
+        List<Slot> slots = new ArrayList<>(byName.values());
+        slots.sort(Comparator.comparingLong(slot -> slot.offset));
+        Path tmp = ruta.resolveSibling(ruta.getFileName() + ".compact.tmp");
+        List<Slot> nuevos = new ArrayList<>(slots.size());
+        long posicion = HEADER_SIZE;
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeHeader(out);
+            out.position(HEADER_SIZE);
+            for (Slot slot : slots) {
+                long copiados = 0;
+                while (copiados < slot.length) {
+                    copiados += channel.transferTo(slot.offset + copiados, slot.length - copiados, out);
+                }
+                nuevos.add(new Slot(posicion, slot.length, slot.name, slot.codes));
+                posicion += slot.length;
+            }
+            out.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+
+        channel.close();
+        channel = null;
+        try {
+            Files.move(tmp, ruta, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmp, ruta, StandardCopyOption.REPLACE_EXISTING);
+        }
+        channel = FileChannel.open(ruta, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        byName.clear();
+        byCode.clear();
+        live = 0;
+        for (Slot slot : nuevos) {
+            index(slot);
+        }
+        end = posicion;
+    }
+
+    // ─── IMPORTAR Y EXPORTAR ─────────────────────────────────────────────────
+
+    /**
+     * Guarda los equipos de un .properties o de una carpeta de ellos, en
+     * cualquiera de los formatos de {@link TeamImporter}.
+     *
+     * @param source archivo o carpeta a importar
+     * @return equipos guardados y entradas descartadas
+     * @throws IOException si no se pudo leer el origen o escribir el almacén
+     */
+    public ImportReport importProperties(Path source) throws IOException {
+        ImportReport report = new TeamImporter().importPath(source);
+        putAll(report.getTeams());
+        return report;
+    }
+
+    /**
+     * Escribe cada equipo guardado como un .properties en el formato de
+     * {@link SavedTeams}, con el nombre del equipo como nombre de archivo.
+     *
+     * @param directorio carpeta de destino
+     * @return cantidad de equipos escritos
+     * @throws IOException si no se pudo leer el almacén o escribir algún archivo
+     */
+    public synchronized int exportProperties(Path directorio) throws IOException {
+        open();
+        Files.createDirectories(directorio);
+        SavedTeams savedTeams = new SavedTeams();
+        for (Slot slot : byName.values()) {
+            savedTeams.writeTeam(read(slot), directorio.resolve(slot.name + ".properties"));
+        }
+        return byName.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+            byName.clear();
+            byCode.clear();
+        }
+    }
+
+    // ─── ARCHIVO ─────────────────────────────────────────────────────────────
+
+    private void open() throws IOException {
+        if (channel != null) {
+            return;
+        }
+        Path dir = ruta.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        channel = FileChannel.open(ruta, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                if (size > 0) {
+                    System.err.println(ruta + ": se descartó un encabezado incompleto");
+                }
+                channel.truncate(0);
+                writeHeader(channel);
+                channel.force(true);
+                end = HEADER_SIZE;
+                live = 0;
+                return;
+            }
+            ByteBuffer cabecera = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(cabecera, 0);
+            if (cabecera.getInt(0) != MAGIC) {
+                throw new IOException(ruta + " no es un almacén de equipos");
+            }
+            short version = cabecera.getShort(Integer.BYTES);
+            if (version < 1 || version > VERSION) {
+                throw new IOException("Versión de almacén de equipos no soportada: " + version);
+            }
+            end = scan(size);
+            if (end < size) {
+                System.err.println(ruta + ": se descartaron " + (size - end) + " bytes al abrir");
+                channel.truncate(end);
+                channel.force(true);
+            }
+        } catch (IOException e) {
+            channel.close();
+            channel = null;
+            byName.clear();
+            byCode.clear();
+            throw e;
+        }
+    }
+
+    /**
+     * Recorre los registros desde el encabezado y arma el índice.
+     *
+     * @return posición del final del último registro válido
+     */
+    private long scan(long size) throws IOException {
+        byName.clear();
+        byCode.clear();
+        live = 0;
+        long posicion = HEADER_SIZE;
+        DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(channel.position(HEADER_SIZE)), 1 << 16));
+        CRC32 crc = new CRC32();
+        // El flujo no se cierra: cerraría también el canal
+        try {
+            while (posicion + RECORD_HEADER <= size) {
+                int largo = in.readInt();
+                int esperado = in.readInt();
+                byte tipo = in.readByte();
+                if (largo < 0 || largo > MAX_RECORD || posicion + RECORD_HEADER + largo > size
+                        || (tipo != PUT && tipo != DELETE)) {
+                    break;
+                }
+                byte[] contenido = new byte[largo];
+                in.readFully(contenido);
+                crc.reset();
+                crc.update(tipo);
+                crc.update(contenido);
+                if ((int) crc.getValue() != esperado || !apply(tipo, contenido, posicion)) {
+                    break;
+                }
+                posicion += RECORD_HEADER + largo;
+            }
+        } catch (EOFException e) {
+            // Registro incompleto al final
+        }
+        return posicion;
+    }
+
+    /**
+     * Aplica un registro leído al índice.
+     *
+     * @return false si el contenido no se puede decodificar
+     */
+    private boolean apply(byte tipo, byte[] contenido, long posicion) {
+        if (tipo == DELETE) {
+            Slot slot = byName.get(key(new String(contenido, StandardCharsets.UTF_8)));
+            if (slot != null) {
+                unindex(slot);
+            }
+            return true;
+        }
+        try {
+            Team team = codec.readTeam(new ByteArrayInputStream(contenido));
+            replace(slotFor(team, posicion, RECORD_HEADER + contenido.length));
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Team read(Slot slot) throws IOException {
+        if (slot == null) {
+            return null;
+        }
+        ByteBuffer registro = ByteBuffer.allocate(slot.length);
+        readFully(registro, slot.offset);
+        CRC32 crc = new CRC32();
+        crc.update(registro.array(), RECORD_HEADER - 1, slot.length - RECORD_HEADER + 1);
+        if ((int) crc.getValue() != registro.getInt(Integer.BYTES)) {
+            throw new IOException(ruta + " está dañado en la posición " + slot.offset);
+        }
+        return codec.readTeam(new ByteArrayInputStream(
+                registro.array(), RECORD_HEADER, slot.length - RECORD_HEADER));
+    }
+
+    private void writeRecord(DataOutputStream out, byte tipo, ByteArrayOutputStream contenido)
+            throws IOException {
+        byte[] bytes = contenido.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(tipo);
+        crc.update(bytes);
+        out.writeInt(bytes.length);
+        out.writeInt((int) crc.getValue());
+        out.writeByte(tipo);
+        out.write(bytes);
+    }
+
+    /** Escribe el lote al final del archivo y actualiza el índice. */
+    private void appendBatch(ByteArrayOutputStream lote, List<Team> pendientes) throws IOException {
+        if (lote.size() == 0) {
+            return;
+        }
+        byte[] bytes = lote.toByteArray();
+        writeFully(ByteBuffer.wrap(bytes), end);
+        // Las posiciones se recorren con los largos ya escritos en el lote
+        ByteBuffer registros = ByteBuffer.wrap(bytes);
+        for (Team team : pendientes) {
+            int largo = RECORD_HEADER + registros.getInt(registros.position());
+            replace(slotFor(team, end + registros.position(), largo));
+            registros.position(registros.position() + largo);
+        }
+        end += bytes.length;
+        lote.reset();
+        pendientes.clear();
+    }
+
+    private void compactIfNeeded() throws IOException {
+        long muerto = end - HEADER_SIZE - live;
+        if (muerto >= COMPACT_MIN && muerto > live) {
+            compact();
+        }
+    }
+
+    private void writeHeader(FileChannel out) throws IOException {
+        ByteBuffer cabecera = ByteBuffer.allocate(HEADER_SIZE);
+        cabecera.putInt(MAGIC).putShort(VERSION).flip();
+        while (cabecera.hasRemaining()) {
+            out.write(cabecera, cabecera.position());
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, posicion + buffer.position());
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long posicion) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                throw new EOFException(ruta + " terminó antes de lo esperado");
+            }
+        }
+    }
+
+    // ─── ÍNDICE ──────────────────────────────────────────────────────────────
+
+    private static Slot slotFor(Team team, long offset, int length) {
+        List<Player> players = team.getPlayers();
+        int[] codes = new int[players.size()];
+        for (int i = 0; i < codes.length; i++) {
+            codes[i] = players.get(i).getCode();
+        }
+        return new Slot(offset, length, team.getName(), codes);
+    }
+
+    private void replace(Slot slot) {
+        Slot anterior = byName.get(key(slot.name));
+        if (anterior != null) {
+            unindex(anterior);
+        }
+        index(slot);
+    }
+
+    private void index(Slot slot) {
+        byName.put(key(slot.name), slot);
+        for (int code : slot.codes) {
+            byCode.put(code, slot);
+        }
+        live += slot.length;
+    }
+
+    private void unindex(Slot slot) {
+        byName.remove(key(slot.name), slot);
+        for (int code : slot.codes) {
+            byCode.remove(code, slot);
+        }
+        live -= slot.length;
+    }
+
+    private static String key(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,49 @@
+package persistence;
+
+import java.util.List;
+
+/**
+ * Registro leído del archivo de ganadores.
+ */
+public class WinnerRecord {
+
+    private final long clave;
+    private final String teamName;
+    private final List<String> playerNames;
+    private final int score;
+    private final long timestamp;
+
+    public WinnerRecord(long clave, String teamName, List<String> playerNames, int score, long timestamp) {
+        this.clave = clave;
+        this.teamName = teamName;
+        this.playerNames = List.copyOf(playerNames);
+        this.score = score;
+        this.timestamp = timestamp;
+    }
+
+    public long getClave() {
+        return clave;
+    }
+
+    public String getTeamName() {
+        return teamName;
+    }
+
+    /**
+     * Nombres de los tres jugadores; vacío si el equipo tenía menos.
+     */
+    public List<String> getPlayerNames() {
+        return playerNames;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Fecha del torneo en milisegundos, o 0 si el formato del archivo no la guarda.
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+}
@@ -0,0 +1,56 @@
+package persistence;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import modelo.Player;
+
+/**
+ * Arma uno o varios registros completos del archivo de ganadores en un
+ * {@link ByteBuffer} reutilizable, para escribirlos con una sola operación
+ * en lugar de una escritura por campo. La distribución de los campos la
+ * define el {@link LedgerFormat} del archivo.
+ */
+class WinnerRecordEncoder {
+
+    private ByteBuffer buffer = ByteBuffer.allocate(LedgerFormat.MAX_RECORD_SIZE);
+    private LedgerFormat format;
+
+    /**
+     * Prepara el buffer para un lote de registros, agrandándolo si hace falta.
+     *
+     * @param format formato del archivo de destino
+     * @param records cantidad de registros del lote
+     */
+    void begin(LedgerFormat format, int records) {
+        int capacidad = format.recordSize() * records;
+        if (buffer.capacity() < capacidad) {
+            buffer = ByteBuffer.allocate(capacidad);
+        }
+        buffer.clear();
+        this.format = format;
+    }
+
+    /**
+     * Agrega un registro al lote.
+     *
+     * @param clave clave del registro
+     * @param timestamp fecha del torneo en milisegundos
+     * @param teamName nombre del equipo
+     * @param players jugadores del equipo (se guardan los tres primeros)
+     * @param score puntaje obtenido
+     */
+    void add(long clave, long timestamp, String teamName, List<Player> players, int score) {
+        format.encode(buffer, clave, timestamp, teamName, players, score);
+    }
+
+    /**
+     * Termina el lote. El buffer retornado queda listo para escribir
+     * y solo es válido hasta el siguiente {@link #begin}.
+     *
+     * @return buffer con los registros del lote
+     */
+    ByteBuffer finish() {
+        return buffer.flip();
+    }
+}
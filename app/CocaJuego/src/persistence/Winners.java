@@ -2,19 +2,32 @@ package persistence;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
-import modelo.Player;
+import modelo.Leaderboard;
 import modelo.Team;
 
 public class Winners {
 
-    private static final int teamSize = 50;
-    private static final int playerSize = 40;
+    static final int teamSize = 50;
+    static final int playerSize = 40;
     private static final String rutaArchivo = "Specs/data/winners.dat";
+    private static final String rutaIndice = "Specs/data/winners.idx";
+    private static final String rutaBloqueo = "Specs/data/winners.lock";
 
-    private static final int bytesForRegister =
+    static final int bytesForRegister =
             Long.BYTES                         // clave
             + (teamSize  * Character.BYTES)  // nombreEquipo
             + (playerSize * Character.BYTES)  // nombreJugador1
@@ -22,81 +35,467 @@ public class Winners {
             + (playerSize * Character.BYTES)  // nombreJugador3
             + Integer.BYTES;                 // puntaje
 
+    // Registros leídos por bloque en las consultas por clave
+    private static final int RECORDS_PER_READ = 1024;
+
+    private final WinnersScanner scanner;
+    private final WinnersIndex index;
+    private final WinnerRecordEncoder encoder = new WinnerRecordEncoder();
+    private final WinnersQuery query = new WinnersQuery();
+    private final WinnersSegments segments;
+    private final WinnersAppender appender;
+
+    // Lo que la recuperación del inicio descartó o no pudo reparar
+    private final List<String> startupWarnings = new ArrayList<>();
+
+    private DurabilityPolicy durability = DurabilityPolicy.NONE;
+    private int groupSize = 1;
+    private int pendientes;
+
+    // Límites del archivo activo antes de sellarlo como segmento (0 = sin límite)
+    private long segmentMaxBytes = 64L * 1024 * 1024;
+    private Duration segmentMaxAge = Duration.ZERO;
+
     public Winners() {
+        this.scanner = new WinnersScanner(Paths.get(rutaArchivo));
+        this.index = new WinnersIndex(Paths.get(rutaArchivo), Paths.get(rutaIndice));
+        this.segments = new WinnersSegments(Paths.get(rutaArchivo));
+        this.appender = new WinnersAppender(Paths.get(rutaBloqueo), this::writeBatch);
         File dir = new File(rutaArchivo).getParentFile();
         if (dir != null && !dir.exists()) {
             dir.mkdirs();
         }
+        try {
+            appender.exclusive(() -> {
+                segments.completePendingSeal(Paths.get(rutaArchivo));
+                if (WinnersRecovery.recover(Paths.get(rutaArchivo), startupWarnings) > 0) {
+                    // El índice pudo haber cubierto registros que ya no existen
+                    Files.deleteIfExists(Paths.get(rutaIndice));
+                }
+                // Un archivo V1 seguiría creciendo con registros de 352 bytes
+                long migrados = migrateLocked();
+                if (migrados > 0) {
+                    startupWarnings.add("Se convirtieron " + migrados
+                            + " registros del archivo de ganadores al formato actual.");
+                }
+                return null;
+            });
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
     }
 
+    /**
+     * Avisos de la revisión del archivo de ganadores al iniciar: registros
+     * incompletos o dañados que se descartaron, o daños que no se repararon.
+     *
+     * @return avisos para mostrar al usuario; vacía si el archivo estaba íntegro
+     */
+    public List<String> getStartupWarnings() {
+        return Collections.unmodifiableList(startupWarnings);
+    }
 
+    /**
+     * Agrega un registro con el equipo ganador y su puntaje al final del
+     * archivo y actualiza el índice de victorias.
+     * Es seguro llamarlo desde varios hilos y desde varios procesos que
+     * compartan la carpeta de datos: las claves no se repiten ni quedan huecos.
+     *
+     * @param team equipo ganador
+     * @param score puntaje obtenido
+     * @throws IOException si no se pudo escribir el registro
+     */
     public void saveWinner(Team team, int score) throws IOException {
-        try (RandomAccessFile raf = new RandomAccessFile(rutaArchivo, "rw")) {
-            long clave = calculateNext(raf);
-            raf.seek(raf.length()); // posicionarse al final del archivo
+        appender.append(team, score);
+    }
+
+    /**
+     * Escribe un lote de ganadores con el bloqueo del archivo ya tomado:
+     * sella el archivo activo si corresponde, calcula las claves a partir
+     * del tamaño actual y agrega todos los registros con una sola escritura.
+     */
+    private synchronized long[] writeBatch(List<WinnersAppender.Request> lote) throws IOException {
+        rollIfNeeded();
 
-            raf.writeLong(clave);
-            writeString(raf, team.getName(), teamSize);
+        LedgerFormat format;
+        long base;
+        long primeraClave;
+        long length;
+        try (FileChannel channel = FileChannel.open(Paths.get(rutaArchivo),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            format = LedgerFormat.detect(channel);
+            long posicion = channel.size(); // posicionarse al final del archivo
+            if (format == null) {
+                format = LedgerFormat.DEFAULT;
+                base = segments.nextBaseClave();
+                posicion = format.writeHeader(channel, base);
+            } else {
+                base = format.baseClave(channel);
+            }
+            primeraClave = base + calculateNext(format, posicion);
 
-            List<Player> players = team.getPlayers();
-            for (int i = 0; i < 3; i++) {
-                String playerName = (i < players.size()) ? players.get(i).getName() : "";
-                writeString(raf, playerName, playerSize);
+            long ahora = System.currentTimeMillis();
+            encoder.begin(format, lote.size());
+            for (int i = 0; i < lote.size(); i++) {
+                Team team = lote.get(i).getTeam();
+                encoder.add(primeraClave + i, ahora, team.getName(), team.getPlayers(), lote.get(i).getScore());
+            }
+            ByteBuffer registros = encoder.finish();
+            while (registros.hasRemaining()) {
+                channel.write(registros, posicion + registros.position());
             }
+            length = posicion + (long) lote.size() * format.recordSize();
+            sync(channel, lote.size());
+        }
+
+        long[] claves = new long[lote.size()];
+        List<String> nombres = new ArrayList<>(lote.size());
+        int[] scores = new int[lote.size()];
+        for (int i = 0; i < lote.size(); i++) {
+            claves[i] = primeraClave + i;
+            nombres.add(lote.get(i).getTeam().getName());
+            scores[i] = lote.get(i).getScore();
+        }
 
-            raf.writeInt(score);
+        try {
+            index.recordsAppended(format, base, nombres, scores, length);
+        } catch (IOException e) {
+            // Los registros ya quedaron guardados; el índice se reconstruye en la próxima consulta
+            e.printStackTrace();
         }
+        return claves;
+    }
+
+    /**
+     * Cambia la política con la que se fuerzan a disco los registros.
+     *
+     * @param policy política de durabilidad
+     * @param groupSize registros por cada sincronización cuando la política es GROUP
+     */
+    public synchronized void setDurabilityPolicy(DurabilityPolicy policy, int groupSize) {
+        if (groupSize < 1) {
+            throw new IllegalArgumentException("groupSize debe ser mayor que 0");
+        }
+        this.durability = policy;
+        this.groupSize = groupSize;
+    }
+
+    private void sync(FileChannel channel, int registros) throws IOException {
+        switch (durability) {
+            case PER_RECORD:
+                channel.force(false);
+                break;
+            case GROUP:
+                pendientes += registros;
+                if (pendientes >= groupSize) {
+                    channel.force(false);
+                    pendientes = 0;
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Fuerza a disco los registros que estén pendientes de sincronizar.
+     *
+     * @throws IOException si no se pudo sincronizar el archivo
+     */
+    public synchronized void flush() throws IOException {
+        if (pendientes == 0 || !Files.exists(Paths.get(rutaArchivo))) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(Paths.get(rutaArchivo), StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+        pendientes = 0;
+    }
+
+    private long calculateNext(LedgerFormat format, long length) {
+        return format.recordCount(length) + 1L;
+    }
+
+    /**
+     * Cambia los límites del archivo activo. Al superarse alguno, el archivo
+     * se sella como segmento antes de agregar el siguiente registro.
+     *
+     * @param maxBytes tamaño máximo en bytes, 0 para no limitar
+     * @param maxAge antigüedad máxima, {@link Duration#ZERO} para no limitar
+     */
+    public synchronized void setSegmentPolicy(long maxBytes, Duration maxAge) {
+        this.segmentMaxBytes = maxBytes;
+        this.segmentMaxAge = maxAge;
     }
 
-    private void writeString(RandomAccessFile raf, String texto, int tamaño) throws IOException {
-        StringBuilder sb = new StringBuilder(texto);
+    /**
+     * Sella el archivo activo si superó alguno de los límites, o si está en
+     * un formato con encabezado anterior al actual.
+     */
+    private void rollIfNeeded() throws IOException {
+        Path ledger = Paths.get(rutaArchivo);
+        LedgerSegment activo = LedgerSegment.open(ledger);
+        if (activo == null || activo.getRecordCount() == 0) {
+            return;
+        }
 
-        if (sb.length() > tamaño) {
-            sb.setLength(tamaño);
-        } else {
-            while (sb.length() < tamaño) {
-                sb.append(" ");
+        boolean porTamaño = segmentMaxBytes > 0 && Files.size(ledger) >= segmentMaxBytes;
+        boolean porEdad = false;
+        if (!segmentMaxAge.isZero()) {
+            long creado;
+            try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.READ)) {
+                creado = activo.getFormat().createdAt(channel);
             }
+            if (creado < 0) {
+                creado = Files.readAttributes(ledger, BasicFileAttributes.class).creationTime().toMillis();
+            }
+            porEdad = System.currentTimeMillis() - creado >= segmentMaxAge.toMillis();
         }
 
-        raf.writeChars(sb.toString());
+        // Los registros nuevos van en un archivo del formato actual
+        LedgerFormat format = activo.getFormat();
+        boolean porFormato = format.headerSize() > 0 && format != LedgerFormat.DEFAULT;
+
+        if (porTamaño || porEdad || porFormato) {
+            scanner.reset();
+            segments.seal(ledger);
+            index.invalidate();
+        }
     }
 
+    /**
+     * Une los segmentos sellados antiguos en segmentos más grandes,
+     * de hasta ocho veces el tamaño máximo del archivo activo.
+     *
+     * @return cantidad de segmentos eliminados al unirse
+     * @throws IOException si no se pudo compactar
+     */
+    public int compactSegments() throws IOException {
+        return appender.exclusive(() -> {
+            synchronized (this) {
+                long objetivo = segmentMaxBytes > 0 ? segmentMaxBytes * 8 : Long.MAX_VALUE;
+                return segments.compact(objetivo);
+            }
+        });
+    }
 
-    private long calculateNext(RandomAccessFile raf) throws IOException {
-        return (raf.length() / bytesForRegister) + 1L;
+    /**
+     * Convierte el archivo de ganadores V1 al formato actual, con CRC por registro.
+     * La conversión se hace sobre un archivo temporal que luego reemplaza
+     * al original, y el índice se reconstruye en la siguiente consulta.
+     * Se hace sola al crear el objeto; este método sirve para volver a
+     * intentarlo si entonces falló.
+     *
+     * @return cantidad de registros migrados, 0 si no hubo que migrar
+     * @throws IOException si no se pudo migrar el archivo
+     */
+    public long migrateFromV1() throws IOException {
+        return appender.exclusive(this::migrateLocked);
     }
 
-    public int timesWinned(String nombreEquipo) throws IOException {
+    private synchronized long migrateLocked() throws IOException {
+        Path ledger = Paths.get(rutaArchivo);
+        if (LedgerFormat.detect(ledger) != LedgerFormat.V1) {
+            return 0L;
+        }
 
-    int contador = 0;
+        Path tmp = ledger.resolveSibling(ledger.getFileName() + ".migrate.tmp");
+        long migrados = new WinnersMigrator().migrate(ledger, tmp);
+        scanner.reset();
+        Files.move(tmp, ledger, StandardCopyOption.REPLACE_EXISTING);
+        index.invalidate();
+        return migrados;
+    }
 
-    try (RandomAccessFile raf = new RandomAccessFile(rutaArchivo, "r")) {
+    /**
+     * Calcula la tabla histórica de campeones recorriendo el archivo en paralelo.
+     *
+     * @return tabla histórica
+     * @throws IOException si no se puede leer el archivo
+     */
+    public Leaderboard leaderboard() throws IOException {
+        return query.run(allSegments());
+    }
 
-        long totalRegistros = raf.length() / bytesForRegister;
+    /**
+     * Lee el registro con la clave indicada, yendo directo a su posición.
+     *
+     * @param clave clave del registro, empezando en 1
+     * @return registro leído, o null si no existe
+     * @throws IOException si no se puede leer el archivo
+     */
+    public WinnerRecord get(long clave) throws IOException {
+        List<WinnerRecord> registros = readRecords(clave, 1);
+        return registros.isEmpty() ? null : registros.get(0);
+    }
 
-        for (int i = 0; i < totalRegistros; i++) {
+    /**
+     * Lee los registros con claves entre {@code from} y {@code to}, ambas incluidas.
+     * El rango se ajusta a los registros existentes.
+     *
+     * @param from primera clave
+     * @param to última clave
+     * @return registros en orden de clave
+     * @throws IOException si no se puede leer el archivo
+     */
+    public List<WinnerRecord> range(long from, long to) throws IOException {
+        long desde = Math.max(from, 1L);
+        if (to < desde) {
+            return new ArrayList<>();
+        }
+        return readRecords(desde, to - desde + 1);
+    }
 
-            raf.seek(i * bytesForRegister);
+    /**
+     * Lee los últimos registros del archivo, por ejemplo para mostrar
+     * los campeones más recientes.
+     *
+     * @param n cantidad de registros
+     * @return hasta n registros en orden de clave, del más antiguo al más reciente
+     * @throws IOException si no se puede leer el archivo
+     */
+    public List<WinnerRecord> tail(int n) throws IOException {
+        long total = recordCount();
+        return readRecords(Math.max(1L, total - n + 1), Math.min(n, total));
+    }
 
-            raf.readLong(); // saltar clave
+    /**
+     * Retorna la cantidad de registros completos, sumando los segmentos
+     * sellados y el archivo activo.
+     *
+     * @return cantidad de registros
+     * @throws IOException si no se puede leer el archivo
+     */
+    public long recordCount() throws IOException {
+        List<LedgerSegment> todos = allSegments();
+        return todos.isEmpty() ? 0L : todos.get(todos.size() - 1).lastClave();
+    }
+
+    /**
+     * Exporta los registros a un archivo de texto, que se crea o se sobrescribe.
+     *
+     * @param destino archivo de salida
+     * @param formato CSV o líneas JSON
+     * @param equipo nombre del equipo a exportar, o null para todos
+     * @param from primera clave, incluida
+     * @param to última clave, incluida
+     * @return cantidad de registros exportados
+     * @throws IOException si no se puede leer el archivo de ganadores o escribir la salida
+     */
+    public long export(Path destino, ExportFormat formato, String equipo,
+                       long from, long to) throws IOException {
+        try (FileChannel channel = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            return export(channel, formato, equipo, from, to);
+        }
+    }
 
-            String nombreGuardado = readString(raf, teamSize);
+    /**
+     * Exporta los registros a un canal, leyendo y escribiendo por bloques
+     * con memoria constante. El canal no se cierra.
+     *
+     * @param destino canal de salida
+     * @param formato CSV o líneas JSON
+     * @param equipo nombre del equipo a exportar, o null para todos
+     * @param from primera clave, incluida
+     * @param to última clave, incluida
+     * @return cantidad de registros exportados
+     * @throws IOException si no se puede leer el archivo de ganadores o escribir la salida
+     */
+    public long export(WritableByteChannel destino, ExportFormat formato, String equipo,
+                       long from, long to) throws IOException {
+        return new WinnersExporter(formato).export(allSegments(), destino, equipo, from, to);
+    }
+
+    /**
+     * Lee hasta {@code cantidad} registros consecutivos desde la clave indicada,
+     * por bloques y con lecturas posicionales en cada segmento que cubra el rango.
+     */
+    private List<WinnerRecord> readRecords(long clave, long cantidad) throws IOException {
+        List<WinnerRecord> registros = new ArrayList<>();
+        if (clave < 1 || cantidad <= 0) {
+            return registros;
+        }
+        long ultimaPedida = clave + cantidad - 1;
 
-            if (nombreGuardado.equalsIgnoreCase(nombreEquipo)) {
-                contador++;
+        for (LedgerSegment segment : allSegments()) {
+            long desde = Math.max(clave, segment.firstClave());
+            long hasta = Math.min(ultimaPedida, segment.lastClave());
+            if (desde > hasta) {
+                continue;
+            }
+
+            LedgerFormat format = segment.getFormat();
+            int size = format.recordSize();
+            int porBloque = (int) Math.min(RECORDS_PER_READ, hasta - desde + 1);
+            ByteBuffer buffer = ByteBuffer.allocate(size * porBloque);
+            try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.READ)) {
+                long actual = desde;
+                while (actual <= hasta) {
+                    int bloque = (int) Math.min(RECORDS_PER_READ, hasta - actual + 1);
+                    buffer.clear().limit(bloque * size);
+                    long posicion = segment.offsetOf(actual);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                            throw new IOException("Fin inesperado de " + segment.getPath());
+                        }
+                    }
+                    for (int i = 0; i < bloque; i++) {
+                        registros.add(format.decode(buffer, i * size));
+                    }
+                    actual += bloque;
+                }
             }
         }
+        return registros;
     }
 
-    return contador;
+    /**
+     * Segmentos sellados seguidos del archivo activo, si tiene registros.
+     */
+    private List<LedgerSegment> allSegments() throws IOException {
+        List<LedgerSegment> todos = new ArrayList<>(segments.sealed());
+        LedgerSegment activo = LedgerSegment.open(Paths.get(rutaArchivo));
+        if (activo != null && !activo.isSealed()) {
+            todos.add(activo);
+        }
+        return todos;
     }
 
-    private String readString(RandomAccessFile raf, int tamaño) throws IOException {
-    StringBuilder sb = new StringBuilder();
-    for (int i = 0; i < tamaño; i++) {
-        sb.append(raf.readChar());
+    /**
+     * Cuenta las veces que un equipo aparece como ganador.
+     * Los segmentos sellados aportan el conteo de su resumen y el archivo
+     * activo se consulta en el índice de victorias; si el índice no se
+     * puede usar, se recorre el archivo activo.
+     *
+     * @param nombreEquipo nombre del equipo
+     * @return cantidad de victorias registradas
+     * @throws IOException si no se puede leer el archivo
+     */
+    public synchronized int timesWinned(String nombreEquipo) throws IOException {
+        int sellados = segments.wins(nombreEquipo);
+        try {
+            WinnersIndex.Entry entry = index.find(nombreEquipo);
+            return sellados + (entry != null ? entry.getWins() : 0);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return sellados + scanner.count(nombreEquipo);
+        }
     }
-    return sb.toString().trim();
+
+    /**
+     * Retorna el mejor puntaje con el que ha ganado un equipo.
+     *
+     * @param nombreEquipo nombre del equipo
+     * @return mejor puntaje, o 0 si nunca ha ganado
+     * @throws IOException si no se puede leer el índice
+     */
+    public synchronized int bestScore(String nombreEquipo) throws IOException {
+        int mejor = segments.bestScore(nombreEquipo);
+        WinnersIndex.Entry entry = index.find(nombreEquipo);
+        if (entry != null) {
+            mejor = Math.max(mejor, entry.getBestScore());
+        }
+        return mejor == Integer.MIN_VALUE ? 0 : mejor;
     }
 }
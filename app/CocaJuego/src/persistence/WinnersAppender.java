@@ -0,0 +1,171 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+import modelo.Team;
+
+/**
+ * Coordina las escrituras al archivo de ganadores entre hilos y entre procesos.
+ *
+ * <p>Entre procesos se usa un {@link FileLock} exclusivo sobre un archivo de
+ * bloqueo aparte, ya que el archivo activo cambia de nombre al sellarse.
+ * Mientras se tiene el bloqueo se lee el tamaño del archivo y se calculan
+ * las claves, así dos estaciones nunca repiten una clave ni mezclan registros.</p>
+ *
+ * <p>Dentro de la JVM, los hilos que llegan mientras otro espera o tiene el
+ * bloqueo quedan en cola; el siguiente que obtiene el bloqueo escribe todos
+ * los pendientes en una sola operación.</p>
+ */
+class WinnersAppender {
+
+    /** Escribe un lote de registros con el bloqueo ya tomado. */
+    interface BatchWriter {
+        /**
+         * @param lote solicitudes a escribir, en orden de llegada
+         * @return clave asignada a cada solicitud
+         * @throws IOException si no se pudo escribir el lote
+         */
+        long[] write(List<Request> lote) throws IOException;
+    }
+
+    /** Acción que se ejecuta con el bloqueo exclusivo del archivo. */
+    interface LockedAction<T> {
+        T run() throws IOException;
+    }
+
+    /** Registro pendiente de escribir. */
+    static class Request {
+        private final Team team;
+        private final int score;
+        private long clave;
+        private IOException error;
+        private volatile boolean done;
+
+        private Request(Team team, int score) {
+            this.team = team;
+            this.score = score;
+        }
+
+        Team getTeam() { return team; }
+        int getScore() { return score; }
+    }
+
+    // Un candado por archivo de bloqueo: FileChannel.lock no admite dos
+    // bloqueos sobre el mismo archivo dentro de una JVM
+    private static final ConcurrentHashMap<Path, ReentrantLock> LOCKS = new ConcurrentHashMap<>();
+
+    private final Path lockFile;
+    private final ReentrantLock lock;
+    private final BatchWriter writer;
+    private final ConcurrentLinkedQueue<Request> pendientes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param lockFile archivo usado para el bloqueo entre procesos
+     * @param writer escritor de lotes
+     */
+    WinnersAppender(Path lockFile, BatchWriter writer) {
+        this.lockFile = lockFile.toAbsolutePath().normalize();
+        this.lock = LOCKS.computeIfAbsent(this.lockFile, k -> new ReentrantLock());
+        this.writer = writer;
+    }
+
+    /**
+     * Agrega un registro, esperando a que quede escrito.
+     *
+     * @param team equipo ganador
+     * @param score puntaje obtenido
+     * @return clave asignada al registro
+     * @throws IOException si no se pudo escribir
+     */
+    long append(Team team, int score) throws IOException {
+        Request request = new Request(team, score);
+        pendientes.add(request);
+
+        lock.lock();
+        try {
+            if (!request.done) {
+                writePending();
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (request.error != null) {
+            throw request.error;
+        }
+        return request.clave;
+    }
+
+    /**
+     * Ejecuta una acción con el archivo bloqueado para este y otros procesos,
+     * por ejemplo sellar, compactar o migrar.
+     *
+     * @param action acción a ejecutar
+     * @return resultado de la acción
+     * @throws IOException si la acción o el bloqueo fallan
+     */
+    <T> T exclusive(LockedAction<T> action) throws IOException {
+        lock.lock();
+        try (FileChannel channel = openLockFile()) {
+            FileLock fileLock = channel.lock();
+            try {
+                return action.run();
+            } finally {
+                fileLock.release();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void writePending() {
+        List<Request> lote = new ArrayList<>();
+        try (FileChannel channel = openLockFile()) {
+            FileLock fileLock = channel.lock();
+            try {
+                // Se drena después de obtener el bloqueo para incluir a quienes
+                // llegaron mientras se esperaba a otro proceso
+                Request r;
+                while ((r = pendientes.poll()) != null) {
+                    lote.add(r);
+                }
+                long[] claves = writer.write(lote);
+                for (int i = 0; i < lote.size(); i++) {
+                    lote.get(i).clave = claves[i];
+                }
+            } finally {
+                fileLock.release();
+            }
+        } catch (IOException | RuntimeException ex) {
+            IOException e = ex instanceof IOException ? (IOException) ex : new IOException(ex);
+            for (Request r : lote) {
+                r.error = e;
+            }
+            if (lote.isEmpty()) {
+                // El bloqueo falló antes de drenar: la solicitud propia sigue en cola
+                Request r;
+                while ((r = pendientes.poll()) != null) {
+                    r.error = e;
+                    lote.add(r);
+                }
+            }
+        } finally {
+            for (Request r : lote) {
+                r.done = true;
+            }
+        }
+    }
+
+    private FileChannel openLockFile() throws IOException {
+        return FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    }
+}
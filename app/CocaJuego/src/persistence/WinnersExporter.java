@@ -0,0 +1,314 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Exporta los registros de ganadores como texto, en CSV o en líneas JSON.
+ *
+ * <p>Los registros se leen por bloques con lecturas posicionales y el texto
+ * se arma directamente en bytes UTF-8 dentro de un buffer de salida que se
+ * vacía al canal cuando se llena, de modo que la memoria usada no depende
+ * del tamaño del archivo. Solo se leen los segmentos que se cruzan con el
+ * rango de claves pedido.</p>
+ *
+ * <p>Columnas: clave, fecha (epoch en ms, 0 en registros V1), equipo,
+ * jugador1, jugador2, jugador3 y puntaje.</p>
+ */
+class WinnersExporter {
+
+    // Registros leídos por bloque
+    private static final int RECORDS_PER_READ = 4096;
+    // Tamaño del buffer de salida
+    private static final int OUTPUT_BUFFER = 256 * 1024;
+    // Espacio que se asegura en el buffer antes de escribir un registro:
+    // cuatro nombres de hasta 50 caracteres escapados, números y separadores
+    private static final int MAX_LINE = 4096;
+
+    private static final String CSV_HEADER = "clave,fecha,equipo,jugador1,jugador2,jugador3,puntaje\n";
+
+    private final ExportFormat formato;
+    private final ByteBuffer out = ByteBuffer.allocate(OUTPUT_BUFFER);
+    private final byte[] digitos = new byte[20];
+    private WritableByteChannel destino;
+
+    /**
+     * @param formato formato del texto de salida
+     */
+    WinnersExporter(ExportFormat formato) {
+        this.formato = formato;
+    }
+
+    /**
+     * Escribe los registros de los segmentos que cumplen los filtros.
+     *
+     * @param segments segmentos sellados y archivo activo, en orden de clave
+     * @param destino canal de salida; no se cierra
+     * @param equipo nombre del equipo a exportar, o null para todos
+     * @param from primera clave, incluida
+     * @param to última clave, incluida
+     * @return cantidad de registros exportados
+     * @throws IOException si no se pudo leer algún segmento o escribir la salida
+     */
+    long export(List<LedgerSegment> segments, WritableByteChannel destino,
+                String equipo, long from, long to) throws IOException {
+        this.destino = destino;
+        out.clear();
+        if (formato == ExportFormat.CSV) {
+            putText(CSV_HEADER);
+        }
+
+        long exportados = 0;
+        for (LedgerSegment segment : segments) {
+            long desde = Math.max(from, segment.firstClave());
+            long hasta = Math.min(to, segment.lastClave());
+            if (desde <= hasta) {
+                exportados += exportSegment(segment, equipo, desde, hasta);
+            }
+        }
+        drain();
+        return exportados;
+    }
+
+    private long exportSegment(LedgerSegment segment, String equipo,
+                               long desde, long hasta) throws IOException {
+        LedgerFormat format = segment.getFormat();
+        String buscado = equipo != null ? format.teamKey(equipo) : null;
+        int size = format.recordSize();
+        ByteBuffer lectura = ByteBuffer.allocate(size * (int) Math.min(RECORDS_PER_READ, hasta - desde + 1));
+
+        long exportados = 0;
+        try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.READ)) {
+            long actual = desde;
+            while (actual <= hasta) {
+                int bloque = (int) Math.min(RECORDS_PER_READ, hasta - actual + 1);
+                lectura.clear().limit(bloque * size);
+                long posicion = segment.offsetOf(actual);
+                while (lectura.hasRemaining()) {
+                    if (channel.read(lectura, posicion + lectura.position()) < 0) {
+                        throw new IOException("Fin inesperado de " + segment.getPath());
+                    }
+                }
+
+                for (int i = 0; i < bloque; i++) {
+                    int base = i * size;
+                    if (buscado == null || format.teamMatches(lectura, base, buscado)) {
+                        writeRecord(format, lectura, base);
+                        exportados++;
+                    }
+                }
+                actual += bloque;
+            }
+        }
+        return exportados;
+    }
+
+    private void writeRecord(LedgerFormat format, ByteBuffer buffer, int base) throws IOException {
+        if (out.remaining() < MAX_LINE) {
+            drain();
+        }
+        if (formato == ExportFormat.CSV) {
+            putNumber(format.clave(buffer, base));
+            out.put((byte) ',');
+            putNumber(format.timestamp(buffer, base));
+            out.put((byte) ',');
+            for (int campo = 0; campo < 4; campo++) {
+                putName(format, buffer, base, campo);
+                out.put((byte) ',');
+            }
+            putNumber(format.score(buffer, base));
+            out.put((byte) '\n');
+        } else {
+            putText("{\"clave\":");
+            putNumber(format.clave(buffer, base));
+            putText(",\"fecha\":");
+            putNumber(format.timestamp(buffer, base));
+            putText(",\"equipo\":");
+            putName(format, buffer, base, 0);
+            putText(",\"jugadores\":[");
+            for (int campo = 1; campo < 4; campo++) {
+                if (campo > 1) {
+                    out.put((byte) ',');
+                }
+                putName(format, buffer, base, campo);
+            }
+            putText("],\"puntaje\":");
+            putNumber(format.score(buffer, base));
+            putText("}\n");
+        }
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            destino.write(out);
+        }
+        out.clear();
+    }
+
+    // ─── TEXTO ───────────────────────────────────────────────────────────────
+
+    /**
+     * Escribe un nombre del registro con el escape del formato de salida.
+     * Si el formato del archivo lo guarda en UTF-8, los bytes se copian
+     * directamente; solo los caracteres ASCII necesitan escape.
+     */
+    private void putName(LedgerFormat format, ByteBuffer buffer, int base, int campo) {
+        int slot = format.utf8Slot(base, campo);
+        if (slot < 0) {
+            String nombre = campo == 0
+                    ? format.teamName(buffer, base)
+                    : format.playerName(buffer, base, campo - 1);
+            if (formato == ExportFormat.CSV) {
+                putCsv(nombre);
+            } else {
+                putJson(nombre);
+            }
+            return;
+        }
+
+        // Mismo recorte que String.trim: los bytes ASCII hasta el espacio
+        int start = slot + 1;
+        int end = start + (buffer.get(slot) & 0xFF);
+        while (start < end && (buffer.get(start) & 0xFF) <= ' ') {
+            start++;
+        }
+        while (end > start && (buffer.get(end - 1) & 0xFF) <= ' ') {
+            end--;
+        }
+
+        if (formato == ExportFormat.CSV) {
+            boolean comillas = false;
+            for (int i = start; i < end && !comillas; i++) {
+                byte b = buffer.get(i);
+                comillas = b == ',' || b == '"' || b == '\n' || b == '\r';
+            }
+            if (comillas) {
+                out.put((byte) '"');
+            }
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '"') {
+                    out.put((byte) '"');
+                }
+                out.put(b);
+            }
+            if (comillas) {
+                out.put((byte) '"');
+            }
+        } else {
+            out.put((byte) '"');
+            for (int i = start; i < end; i++) {
+                byte b = buffer.get(i);
+                if (b == '"' || b == '\\') {
+                    out.put((byte) '\\').put(b);
+                } else if (b >= 0 && b < ' ') {
+                    out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0');
+                    out.put((byte) Character.forDigit(b >> 4, 16));
+                    out.put((byte) Character.forDigit(b & 0xF, 16));
+                } else {
+                    out.put(b);
+                }
+            }
+            out.put((byte) '"');
+        }
+    }
+
+    private void putNumber(long valor) {
+        if (valor == Long.MIN_VALUE) {
+            putText(Long.toString(valor));
+            return;
+        }
+        if (valor < 0) {
+            out.put((byte) '-');
+            valor = -valor;
+        }
+        int i = digitos.length;
+        do {
+            digitos[--i] = (byte) ('0' + valor % 10);
+            valor /= 10;
+        } while (valor != 0);
+        out.put(digitos, i, digitos.length - i);
+    }
+
+    /** Campo CSV: entre comillas solo si contiene separadores, comillas o saltos de línea. */
+    private void putCsv(String texto) {
+        boolean comillas = false;
+        for (int i = 0; i < texto.length() && !comillas; i++) {
+            char c = texto.charAt(i);
+            comillas = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!comillas) {
+            putText(texto);
+            return;
+        }
+        out.put((byte) '"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"') {
+                out.put((byte) '"');
+            }
+            i += putChar(texto, i) - 1;
+        }
+        out.put((byte) '"');
+    }
+
+    private void putJson(String texto) {
+        out.put((byte) '"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.put((byte) '\\');
+                out.put((byte) c);
+            } else if (c < ' ') {
+                out.put((byte) '\\').put((byte) 'u').put((byte) '0').put((byte) '0');
+                out.put((byte) Character.forDigit(c >> 4, 16));
+                out.put((byte) Character.forDigit(c & 0xF, 16));
+            } else {
+                i += putChar(texto, i) - 1;
+            }
+        }
+        out.put((byte) '"');
+    }
+
+    private void putText(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            i += putChar(texto, i) - 1;
+        }
+    }
+
+    /**
+     * Escribe en UTF-8 el carácter de la posición indicada; si es el inicio
+     * de un par sustituto, escribe el par completo.
+     *
+     * @return cantidad de {@code char} consumidos, 1 o 2
+     */
+    private int putChar(String texto, int i) {
+        char c = texto.charAt(i);
+        if (c < 0x80) {
+            out.put((byte) c);
+        } else if (c < 0x800) {
+            out.put((byte) (0xC0 | (c >> 6)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                && Character.isLowSurrogate(texto.charAt(i + 1))) {
+            int cp = Character.toCodePoint(c, texto.charAt(i + 1));
+            out.put((byte) (0xF0 | (cp >> 18)));
+            out.put((byte) (0x80 | ((cp >> 12) & 0x3F)));
+            out.put((byte) (0x80 | ((cp >> 6) & 0x3F)));
+            out.put((byte) (0x80 | (cp & 0x3F)));
+            return 2;
+        } else if (Character.isSurrogate(c)) {
+            out.put((byte) '?');
+        } else {
+            out.put((byte) (0xE0 | (c >> 12)));
+            out.put((byte) (0x80 | ((c >> 6) & 0x3F)));
+            out.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return 1;
+    }
+}
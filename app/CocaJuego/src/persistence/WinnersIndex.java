@@ -0,0 +1,410 @@
+package persistence;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32C;
+
+/**
+ * Índice auxiliar del archivo de ganadores.
+ * Guarda, por nombre de equipo normalizado, la cantidad de victorias y
+ * el mejor puntaje, de modo que contar victorias sea una búsqueda y no un
+ * recorrido de todo el archivo.
+ *
+ * <p>El índice cubre solo el archivo activo; los segmentos sellados tienen
+ * su propio resumen (ver {@link WinnersSegments}).
+ * El índice recuerda el formato, la clave base y el tamaño del archivo que
+ * cubre, y una huella (CRC32C) del último registro cubierto, o de la
+ * cabecera si no hay registros. Si al consultarlo el archivo creció y la
+ * huella coincide, se indexan solo los registros nuevos; si no existe,
+ * está dañado o no coincide, se reconstruye completo.</p>
+ *
+ * <p>El archivo es un punto de control seguido de deltas que solo se
+ * agregan al final: guardar un ganador escribe un delta con sus equipos, no
+ * el índice completo. Cada {@value #CHECKPOINT_EVERY} deltas, o cuando hay
+ * que indexar registros que escribió otro proceso, se reescribe el punto de
+ * control con todo el índice y los deltas se descartan.</p>
+ *
+ * <p>Punto de control: magic, versión, formato del archivo de ganadores,
+ * clave base, tamaño cubierto, huella, cantidad de equipos y, por cada
+ * equipo, nombre, victorias y mejor puntaje. Delta: largo, contenido y su
+ * CRC32C; el contenido tiene el tamaño cubierto antes y después, la huella
+ * y, por cada registro, nombre y puntaje. Al cargar, la lectura se detiene
+ * en el primer delta incompleto o que no continúa al anterior.</p>
+ */
+class WinnersIndex {
+
+    private static final int MAGIC = 0x42574958; // "BWIX"
+    private static final int VERSION = 4;
+
+    /** Deltas que se acumulan antes de reescribir el punto de control. */
+    static final int CHECKPOINT_EVERY = 64;
+
+    // Registros leídos por bloque al reconstruir
+    private static final int RECORDS_PER_READ = 1024;
+
+    /** Datos acumulados de un equipo. */
+    static class Entry {
+        private int wins;
+        private int bestScore = Integer.MIN_VALUE;
+
+        private void add(int score) {
+            wins++;
+            bestScore = Math.max(bestScore, score);
+        }
+
+        int getWins() { return wins; }
+        int getBestScore() { return bestScore; }
+    }
+
+    private final Path ledger;
+    private final Path indexPath;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private LedgerFormat format;
+    private long baseClave;
+    private long coveredLength = -1;
+    private long fingerprint;
+    // Deltas escritos desde el último punto de control
+    private int deltas;
+
+    /**
+     * @param ledger ruta del archivo de ganadores
+     * @param indexPath ruta del archivo de índice
+     */
+    WinnersIndex(Path ledger, Path indexPath) {
+        this.ledger = ledger;
+        this.indexPath = indexPath;
+    }
+
+    /**
+     * Normaliza un nombre ya truncado al tamaño del campo:
+     * sin relleno y sin distinguir mayúsculas.
+     *
+     * @param nombre nombre del equipo tal como queda guardado
+     * @return clave normalizada para el índice
+     */
+    static String normalize(String nombre) {
+        String texto = nombre.trim();
+        char[] chars = new char[texto.length()];
+        for (int i = 0; i < chars.length; i++) {
+            // Misma equivalencia que String.equalsIgnoreCase
+            chars[i] = Character.toLowerCase(Character.toUpperCase(texto.charAt(i)));
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Retorna los datos de un equipo, o null si nunca ha ganado.
+     *
+     * @param nombreEquipo nombre del equipo
+     * @return datos del equipo o null
+     * @throws IOException si no se pudo leer ni reconstruir el índice
+     */
+    synchronized Entry find(String nombreEquipo) throws IOException {
+        refresh();
+        if (format == null) {
+            return null;
+        }
+        return entries.get(format.teamKey(nombreEquipo));
+    }
+
+    /**
+     * Registra los ganadores recién agregados al final del archivo y los
+     * agrega al índice como un delta. Se llama con el archivo de ganadores
+     * bloqueado, así que solo un proceso agrega deltas a la vez.
+     *
+     * @param ledgerFormat formato del archivo de ganadores
+     * @param ledgerBase clave base del archivo de ganadores
+     * @param nombres nombres de los equipos ganadores, en orden
+     * @param scores puntaje de cada registro
+     * @param ledgerLength tamaño del archivo de ganadores tras escribir los registros
+     * @throws IOException si no se pudo guardar el índice
+     */
+    synchronized void recordsAppended(LedgerFormat ledgerFormat, long ledgerBase, List<String> nombres,
+                                      int[] scores, long ledgerLength) throws IOException {
+        long anterior = ledgerLength - (long) nombres.size() * ledgerFormat.recordSize();
+        if (format != ledgerFormat || baseClave != ledgerBase || coveredLength != anterior) {
+            // El índice no estaba al día: se pone al día leyendo el archivo,
+            // lo que ya incluye los registros nuevos
+            refresh();
+            return;
+        }
+
+        String[] claves = new String[nombres.size()];
+        for (int i = 0; i < nombres.size(); i++) {
+            claves[i] = format.teamKey(nombres.get(i));
+            entries.computeIfAbsent(claves[i], k -> new Entry()).add(scores[i]);
+        }
+        coveredLength = ledgerLength;
+        fingerprint = fingerprint(format, coveredLength);
+
+        if (deltas >= CHECKPOINT_EVERY || !Files.exists(indexPath)) {
+            saveCheckpoint();
+        } else {
+            appendDelta(anterior, claves, scores);
+        }
+    }
+
+    /**
+     * Verifica que el índice cubra todo el archivo de ganadores,
+     * cargándolo o reconstruyéndolo si hace falta.
+     */
+    private void refresh() throws IOException {
+        LedgerSegment segment = LedgerSegment.open(ledger);
+        LedgerFormat actual = segment != null ? segment.getFormat() : null;
+        long base = segment != null ? segment.getBaseClave() : 0L;
+        long length = segment != null ? segment.endOfRecords() : 0L; // solo registros completos
+        if (coveredLength < 0) {
+            load();
+        }
+
+        boolean rebuild = format != actual
+                || baseClave != base
+                || coveredLength < 0
+                || coveredLength > length
+                || (actual != null && fingerprint != fingerprint(actual, coveredLength));
+        if (!rebuild && coveredLength == length) {
+            return;
+        }
+        if (rebuild) {
+            entries.clear();
+            format = actual;
+            baseClave = base;
+            coveredLength = actual != null ? actual.headerSize() : 0L;
+        }
+        if (actual != null) {
+            indexFrom(coveredLength, length);
+            fingerprint = fingerprint(actual, coveredLength);
+        } else {
+            fingerprint = 0L;
+        }
+        saveCheckpoint();
+    }
+
+    /**
+     * Descarta el índice en memoria; se vuelve a cargar en la siguiente consulta.
+     * Se usa cuando el archivo de ganadores fue reemplazado.
+     */
+    synchronized void invalidate() {
+        entries.clear();
+        format = null;
+        baseClave = 0L;
+        coveredLength = -1;
+        fingerprint = 0L;
+        deltas = 0;
+    }
+
+    /**
+     * Huella del archivo de ganadores hasta una posición: CRC32C del último
+     * registro antes de ella, o de la cabecera si no hay registros.
+     */
+    private long fingerprint(LedgerFormat ledgerFormat, long length) throws IOException {
+        int size = length > ledgerFormat.headerSize() ? ledgerFormat.recordSize() : ledgerFormat.headerSize();
+        if (size == 0) {
+            return 0L;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, length - size + buffer.position()) < 0) {
+                    return -1L; // el archivo se achicó: no coincide con ninguna huella
+                }
+            }
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * Indexa los registros completos entre las dos posiciones del archivo.
+     */
+    private void indexFrom(long from, long to) throws IOException {
+        int size = format.recordSize();
+        long registro = (from - format.headerSize()) / size;
+        long totalRegistros = (to - format.headerSize()) / size;
+
+        ByteBuffer buffer = ByteBuffer.allocate(size * RECORDS_PER_READ);
+        try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.READ)) {
+            while (registro < totalRegistros) {
+                int cantidad = (int) Math.min(RECORDS_PER_READ, totalRegistros - registro);
+                buffer.clear().limit(cantidad * size);
+                long posicion = format.headerSize() + registro * size;
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                        throw new IOException("Fin inesperado de " + ledger);
+                    }
+                }
+
+                for (int i = 0; i < cantidad; i++) {
+                    int base = i * size;
+                    entries.computeIfAbsent(format.teamKey(buffer, base), k -> new Entry())
+                            .add(format.score(buffer, base));
+                }
+                registro += cantidad;
+            }
+        }
+        coveredLength = to;
+    }
+
+    // ─── ARCHIVO ─────────────────────────────────────────────────────────────
+
+    private boolean load() {
+        if (!Files.exists(indexPath)) {
+            return false;
+        }
+        Map<String, Entry> leidas = new HashMap<>();
+        LedgerFormat leido;
+        long base;
+        long cubierto;
+        long huella;
+        int leidos = 0;
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(indexPath)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return false;
+            }
+            int ordinal = in.readInt();
+            leido = ordinal < 0 ? null : LedgerFormat.values()[ordinal];
+            base = in.readLong();
+            cubierto = in.readLong();
+            huella = in.readLong();
+            int equipos = in.readInt();
+            for (int i = 0; i < equipos; i++) {
+                String nombre = in.readUTF();
+                Entry entry = new Entry();
+                entry.wins = in.readInt();
+                entry.bestScore = in.readInt();
+                leidas.put(nombre, entry);
+            }
+
+            byte[] delta;
+            while ((delta = readDelta(in)) != null) {
+                DataInputStream d = new DataInputStream(new ByteArrayInputStream(delta));
+                if (d.readLong() != cubierto) {
+                    break; // escrito sobre otro estado del índice
+                }
+                cubierto = d.readLong();
+                huella = d.readLong();
+                int registros = d.readInt();
+                for (int i = 0; i < registros; i++) {
+                    String nombre = d.readUTF();
+                    leidas.computeIfAbsent(nombre, k -> new Entry()).add(d.readInt());
+                }
+                leidos++;
+            }
+        } catch (IOException | ArrayIndexOutOfBoundsException e) {
+            // Índice dañado o incompleto: se reconstruye
+            return false;
+        }
+        entries.clear();
+        entries.putAll(leidas);
+        format = leido;
+        baseClave = base;
+        coveredLength = cubierto;
+        fingerprint = huella;
+        deltas = leidos;
+        return true;
+    }
+
+    /**
+     * Lee el contenido del siguiente delta, o null si no hay más o quedó
+     * incompleto.
+     */
+    private static byte[] readDelta(DataInputStream in) throws IOException {
+        byte[] contenido;
+        try {
+            int largo = in.readInt();
+            if (largo < 0 || largo > in.available()) {
+                return null;
+            }
+            contenido = new byte[largo];
+            in.readFully(contenido);
+            int esperado = in.readInt();
+            CRC32C crc = new CRC32C();
+            crc.update(contenido);
+            if ((int) crc.getValue() != esperado) {
+                return null;
+            }
+        } catch (EOFException e) {
+            return null;
+        }
+        return contenido;
+    }
+
+    private void appendDelta(long anterior, String[] claves, int[] scores) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(28 + claves.length * 32);
+        try (DataOutputStream d = new DataOutputStream(bytes)) {
+            d.writeLong(anterior);
+            d.writeLong(coveredLength);
+            d.writeLong(fingerprint);
+            d.writeInt(claves.length);
+            for (int i = 0; i < claves.length; i++) {
+                d.writeUTF(claves[i]);
+                d.writeInt(scores[i]);
+            }
+        }
+        byte[] contenido = bytes.toByteArray();
+        CRC32C crc = new CRC32C();
+        crc.update(contenido);
+
+        ByteBuffer delta = ByteBuffer.allocate(contenido.length + 8);
+        delta.putInt(contenido.length).put(contenido).putInt((int) crc.getValue()).flip();
+        try (FileChannel channel = FileChannel.open(indexPath,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (delta.hasRemaining()) {
+                channel.write(delta);
+            }
+        }
+        deltas++;
+    }
+
+    private void saveCheckpoint() throws IOException {
+        // Temporal propio de cada escritura: otros procesos pueden guardar a la vez
+        Path tmp = Files.createTempFile(indexPath.toAbsolutePath().getParent(),
+                indexPath.getFileName().toString(), ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(format != null ? format.ordinal() : -1);
+                out.writeLong(baseClave);
+                out.writeLong(coveredLength);
+                out.writeLong(fingerprint);
+                out.writeInt(entries.size());
+                for (Map.Entry<String, Entry> e : entries.entrySet()) {
+                    Entry entry = e.getValue();
+                    out.writeUTF(e.getKey());
+                    out.writeInt(entry.wins);
+                    out.writeInt(entry.bestScore);
+                }
+            }
+            try {
+                Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, indexPath, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        deltas = 0;
+    }
+}
@@ -0,0 +1,87 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import modelo.Player;
+
+/**
+ * Convierte un archivo de ganadores V1 al formato actual leyendo y escribiendo
+ * por bloques, sin cargar el archivo completo en memoria.
+ * Los registros migrados conservan su clave y quedan con fecha 0,
+ * ya que V1 no la guardaba.
+ * El formato de destino es {@link LedgerFormat#DEFAULT}, con CRC por registro.
+ */
+public class WinnersMigrator {
+
+    // Registros procesados por bloque
+    private static final int RECORDS_PER_BLOCK = 4096;
+
+    public WinnersMigrator() {
+    }
+
+    /**
+     * Migra el archivo de origen (V1) a un archivo nuevo en el formato actual.
+     * Si el destino existe se sobrescribe.
+     *
+     * @param source archivo de ganadores en formato V1
+     * @param target archivo de destino
+     * @return cantidad de registros migrados
+     * @throws IOException si el origen no es V1 o no se pudo leer o escribir
+     */
+    public long migrate(Path source, Path target) throws IOException {
+        LedgerFormat from = LedgerFormat.V1;
+        LedgerFormat to = LedgerFormat.DEFAULT;
+
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+
+            LedgerFormat actual = LedgerFormat.detect(in);
+            if (actual != null && actual != LedgerFormat.V1) {
+                throw new IOException(source + " ya está en formato " + actual);
+            }
+
+            long totalRegistros = from.recordCount(in.size());
+            ByteBuffer lectura = ByteBuffer.allocate(from.recordSize() * RECORDS_PER_BLOCK);
+            ByteBuffer escritura = ByteBuffer.allocate(to.recordSize() * RECORDS_PER_BLOCK);
+            List<Player> players = new ArrayList<>(3);
+
+            long posicionSalida = to.writeHeader(out, 0L);
+            long registro = 0;
+            while (registro < totalRegistros) {
+                int cantidad = (int) Math.min(RECORDS_PER_BLOCK, totalRegistros - registro);
+                lectura.clear().limit(cantidad * from.recordSize());
+                long posicion = from.offsetOf(registro + 1);
+                while (lectura.hasRemaining()) {
+                    if (in.read(lectura, posicion + lectura.position()) < 0) {
+                        throw new IOException("Fin inesperado de " + source);
+                    }
+                }
+
+                escritura.clear();
+                for (int i = 0; i < cantidad; i++) {
+                    int base = i * from.recordSize();
+                    players.clear();
+                    for (int p = 0; p < 3; p++) {
+                        players.add(new Player(from.playerName(lectura, base, p), 0));
+                    }
+                    to.encode(escritura, from.clave(lectura, base), 0L,
+                            from.teamName(lectura, base), players, from.score(lectura, base));
+                }
+                escritura.flip();
+                while (escritura.hasRemaining()) {
+                    posicionSalida += out.write(escritura, posicionSalida);
+                }
+                registro += cantidad;
+            }
+            out.force(false);
+            return totalRegistros;
+        }
+    }
+}
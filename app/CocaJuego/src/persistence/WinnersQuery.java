@@ -0,0 +1,124 @@
+package persistence;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import modelo.Leaderboard;
+
+/**
+ * Motor de consultas históricas sobre el archivo de ganadores.
+ * Los segmentos sellados aportan directamente su resumen; los que no lo
+ * tienen se dividen en tramos alineados a registros que se agregan en
+ * paralelo con fork-join, y al final se unen todos los resultados parciales
+ * en un {@link Leaderboard}.
+ */
+class WinnersQuery {
+
+    // Registros que procesa cada tarea sin volver a dividirse
+    private static final long RECORDS_PER_TASK = 65536;
+    // Registros leídos por bloque dentro de una tarea
+    private static final int RECORDS_PER_READ = 4096;
+
+    private final ForkJoinPool pool;
+
+    WinnersQuery() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    WinnersQuery(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Calcula la tabla histórica completa de los segmentos indicados.
+     *
+     * @param segments segmentos sellados y archivo activo
+     * @return tabla histórica
+     * @throws IOException si no se puede leer algún segmento
+     */
+    Leaderboard run(List<LedgerSegment> segments) throws IOException {
+        SegmentSummary total = new SegmentSummary();
+        for (LedgerSegment segment : segments) {
+            if (segment.isSealed()) {
+                total.merge(segment.getSummary());
+            } else {
+                total.merge(scan(segment));
+            }
+        }
+        return total.toLeaderboard();
+    }
+
+    private SegmentSummary scan(LedgerSegment segment) throws IOException {
+        try (FileChannel channel = FileChannel.open(segment.getPath(), StandardOpenOption.READ)) {
+            return pool.invoke(new RangeTask(channel, segment.getFormat(), 1, segment.getRecordCount() + 1));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Agrega los registros con número en [from, to) dentro de un archivo.
+     */
+    private static class RangeTask extends RecursiveTask<SegmentSummary> {
+
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final LedgerFormat format;
+        private final long from;
+        private final long to;
+
+        RangeTask(FileChannel channel, LedgerFormat format, long from, long to) {
+            this.channel = channel;
+            this.format = format;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SegmentSummary compute() {
+            if (to - from <= RECORDS_PER_TASK) {
+                return scan();
+            }
+            long mitad = from + (to - from) / 2;
+            RangeTask izquierda = new RangeTask(channel, format, from, mitad);
+            RangeTask derecha = new RangeTask(channel, format, mitad, to);
+            izquierda.fork();
+            SegmentSummary parcial = derecha.compute();
+            return parcial.merge(izquierda.join());
+        }
+
+        private SegmentSummary scan() {
+            SegmentSummary parcial = new SegmentSummary();
+            int size = format.recordSize();
+            ByteBuffer buffer = ByteBuffer.allocate(size * (int) Math.min(RECORDS_PER_READ, to - from));
+
+            try {
+                long numero = from;
+                while (numero < to) {
+                    int bloque = (int) Math.min(RECORDS_PER_READ, to - numero);
+                    buffer.clear().limit(bloque * size);
+                    long posicion = format.offsetOf(numero);
+                    while (buffer.hasRemaining()) {
+                        if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                            throw new IOException("Fin inesperado del archivo de ganadores");
+                        }
+                    }
+                    for (int i = 0; i < bloque; i++) {
+                        parcial.add(format, buffer, i * size);
+                    }
+                    numero += bloque;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return parcial;
+        }
+    }
+}
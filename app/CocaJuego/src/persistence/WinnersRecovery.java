@@ -0,0 +1,117 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Revisa el final del archivo activo de ganadores al iniciar y descarta
+ * lo que quedó a medio escribir si el programa se cerró durante un guardado.
+ *
+ * <p>En todos los formatos se descartan los bytes sueltos después del último
+ * registro completo. En V1 y V2 no hay nada más que revisar: esos archivos
+ * pueden tener claves repetidas o corridas de versiones anteriores, así que
+ * la clave no sirve para decidir si un registro es válido.</p>
+ *
+ * <p>En V3 y V4 se revisa además el CRC de los últimos {@value #TAIL_RECORDS}
+ * registros, desde el final hacia atrás, y se descartan los que no coinciden
+ * hasta el primero que sí. Una escritura interrumpida solo afecta al último
+ * lote, así que si ninguno de los revisados es válido el daño no es de un
+ * cierre inesperado: el archivo no se toca y solo se avisa.</p>
+ *
+ * <p>Lo que se descarta o se deja sin tocar se informa con un mensaje para
+ * mostrar al usuario.</p>
+ */
+class WinnersRecovery {
+
+    // Registros que se revisan como máximo, contando desde el final
+    private static final int TAIL_RECORDS = 256;
+
+    private WinnersRecovery() {
+    }
+
+    /**
+     * Trunca el archivo después del último registro válido.
+     *
+     * @param ledger archivo activo de ganadores; no debe estar sellado
+     * @param avisos lista donde se agregan los mensajes para el usuario
+     * @return bytes descartados, 0 si el archivo estaba íntegro
+     * @throws IOException si no se pudo leer o truncar el archivo
+     */
+    static long recover(Path ledger, List<String> avisos) throws IOException {
+        if (!Files.exists(ledger)) {
+            return 0L;
+        }
+        try (FileChannel channel = FileChannel.open(ledger, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            LedgerFormat format = LedgerFormat.detect(channel);
+            if (format == null) {
+                return 0L;
+            }
+            if (size < format.headerSize()) {
+                // Encabezado incompleto: el archivo todavía no tenía registros
+                truncate(channel, 0L);
+                avisos.add("Se descartó el encabezado incompleto del archivo de ganadores.");
+                return size;
+            }
+
+            long completos = format.recordCount(size);
+            long fin = format.offsetOf(completos + 1);
+            if (fin < size) {
+                avisos.add("Se descartaron " + (size - fin)
+                        + " bytes de un registro de ganadores incompleto.");
+            }
+            if (format.hasChecksum() && completos > 0) {
+                long revisados = Math.min(completos, TAIL_RECORDS);
+                long validos = lastValid(channel, format, completos, revisados);
+                if (validos < 0) {
+                    avisos.add("Los últimos " + revisados + " registros del archivo de ganadores "
+                            + "no pasan la verificación; el archivo no se modificó.");
+                } else if (validos < completos) {
+                    long base = format.baseClave(channel);
+                    avisos.add("Se descartaron " + (completos - validos)
+                            + " registros de ganadores dañados desde la clave " + (base + validos + 1) + ".");
+                    fin = format.offsetOf(validos + 1);
+                }
+            }
+            if (fin < size) {
+                truncate(channel, fin);
+            }
+            return size - fin;
+        }
+    }
+
+    /**
+     * Cantidad de registros desde el inicio del archivo hasta el último con
+     * el CRC correcto entre los revisados, o -1 si ninguno lo tiene.
+     */
+    private static long lastValid(FileChannel channel, LedgerFormat format, long completos,
+                                  long revisados) throws IOException {
+        int size = format.recordSize();
+        long desde = completos - revisados;
+        ByteBuffer buffer = ByteBuffer.allocate(size * (int) revisados);
+        long posicion = format.offsetOf(desde + 1);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, posicion + buffer.position()) < 0) {
+                throw new IOException("Fin inesperado del archivo de ganadores");
+            }
+        }
+
+        for (int i = (int) revisados - 1; i >= 0; i--) {
+            if (format.checksumMatches(buffer, i * size)) {
+                return desde + i + 1;
+            }
+        }
+        return -1L;
+    }
+
+    private static void truncate(FileChannel channel, long fin) throws IOException {
+        channel.truncate(fin);
+        channel.force(true);
+    }
+}
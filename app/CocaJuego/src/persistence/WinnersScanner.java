@@ -0,0 +1,102 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Recorre el archivo de ganadores a través de un {@link MappedByteBuffer}.
+ * El archivo se mapea una sola vez y solo se vuelve a mapear cuando cambia
+ * de tamaño, de modo que contar victorias no hace una llamada al sistema
+ * por cada carácter como ocurría leyendo con {@code readChar()}.
+ * Acepta cualquier {@link LedgerFormat}.
+ */
+class WinnersScanner {
+
+    private final Path path;
+
+    private LedgerFormat format;
+    private MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private long mappedLength;
+
+    /**
+     * @param path ruta del archivo de ganadores
+     */
+    WinnersScanner(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Cuenta los registros cuyo nombre de equipo, sin espacios de relleno,
+     * coincide con el indicado sin distinguir mayúsculas.
+     *
+     * @param nombreEquipo nombre del equipo a buscar
+     * @return cantidad de registros del equipo
+     * @throws IOException si el archivo no existe o no se puede mapear
+     */
+    synchronized int count(String nombreEquipo) throws IOException {
+        remapIfChanged();
+
+        if (format == null) {
+            return 0;
+        }
+        String clave = format.teamKey(nombreEquipo);
+        int contador = 0;
+        for (MappedByteBuffer region : regions) {
+            int size = format.recordSize();
+            int registros = region.capacity() / size;
+            for (int i = 0; i < registros; i++) {
+                if (format.teamMatches(region, i * size, clave)) {
+                    contador++;
+                }
+            }
+        }
+        return contador;
+    }
+
+    /**
+     * Libera el mapeo actual; se vuelve a mapear en la siguiente consulta.
+     * Necesario antes de reemplazar el archivo.
+     */
+    synchronized void reset() {
+        regions = new MappedByteBuffer[0];
+        mappedLength = -1;
+    }
+
+    private void remapIfChanged() throws IOException {
+        long length = Files.size(path);
+        if (length == mappedLength) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LedgerFormat detectado = LedgerFormat.detect(channel);
+            if (detectado == null) {
+                regions = new MappedByteBuffer[0];
+                mappedLength = length;
+                return;
+            }
+
+            // Cada región contiene un número entero de registros
+            int size = detectado.recordSize();
+            long recordsPerRegion = Integer.MAX_VALUE / size;
+            long totalRegistros = detectado.recordCount(length);
+            int cantidadRegiones = (int) ((totalRegistros + recordsPerRegion - 1) / recordsPerRegion);
+            MappedByteBuffer[] nuevas = new MappedByteBuffer[cantidadRegiones];
+
+            for (int r = 0; r < cantidadRegiones; r++) {
+                long primero = r * recordsPerRegion;
+                long registros = Math.min(recordsPerRegion, totalRegistros - primero);
+                nuevas[r] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        detectado.headerSize() + primero * size, registros * size);
+            }
+
+            format = detectado;
+            regions = nuevas;
+            mappedLength = length;
+        }
+    }
+}
@@ -0,0 +1,379 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import modelo.Player;
+
+/**
+ * Administra los segmentos sellados del archivo de ganadores.
+ *
+ * <p>Cuando el archivo activo alcanza su límite se sella: se le agrega al
+ * final un {@link SegmentSummary} y se renombra como
+ * {@code winners.<primera clave>.seg} en la misma carpeta. Las consultas
+ * sobre segmentos sellados leen solo su resumen.</p>
+ *
+ * <p>La compactación une segmentos consecutivos en uno solo. Si se
+ * interrumpe, el segmento unido conserva el nombre del primero; los
+ * segmentos que quedaron cubiertos por él se ignoran en las consultas y se
+ * borran en la siguiente compactación, que corre con el archivo bloqueado.</p>
+ *
+ * <p>Cada segmento leído se guarda junto con su tamaño y fecha de
+ * modificación, y se vuelve a leer si cambian: otro proceso pudo haber
+ * compactado y dejado un segmento distinto con el mismo nombre.</p>
+ */
+class WinnersSegments {
+
+    private static final String PREFIX = "winners.";
+    private static final String SUFFIX = ".seg";
+    // Registros copiados por bloque al compactar
+    private static final int RECORDS_PER_BLOCK = 4096;
+
+    private final Path dir;
+    private final Map<Path, Cached> cache = new HashMap<>();
+    private List<LedgerSegment> sealed = new ArrayList<>();
+    // Segmentos cubiertos por otro: restos de una compactación interrumpida
+    private List<LedgerSegment> covered = new ArrayList<>();
+
+    /** Segmento leído, con el tamaño y la fecha del archivo al leerlo. */
+    private static final class Cached {
+        private final LedgerSegment segment;
+        private final long size;
+        private final FileTime modified;
+
+        private Cached(LedgerSegment segment, BasicFileAttributes attributes) {
+            this.segment = segment;
+            this.size = attributes.size();
+            this.modified = attributes.lastModifiedTime();
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified.equals(attributes.lastModifiedTime());
+        }
+    }
+
+    /**
+     * @param active ruta del archivo activo; los segmentos se guardan en su carpeta
+     */
+    WinnersSegments(Path active) {
+        this.dir = active.toAbsolutePath().getParent();
+    }
+
+    /**
+     * Retorna los segmentos sellados ordenados por clave, releyendo solo
+     * los que aparecieron o cambiaron desde la última consulta. Los
+     * segmentos cubiertos por otro no se incluyen; no se borra nada, porque
+     * puede llamarse sin el archivo bloqueado.
+     *
+     * @return segmentos sellados
+     * @throws IOException si no se pudo leer la carpeta o algún segmento
+     */
+    synchronized List<LedgerSegment> sealed() throws IOException {
+        Map<Path, BasicFileAttributes> encontrados = new HashMap<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, PREFIX + "*" + SUFFIX)) {
+                for (Path path : stream) {
+                    try {
+                        encontrados.put(path, Files.readAttributes(path, BasicFileAttributes.class));
+                    } catch (NoSuchFileException e) {
+                        // Lo borró otro proceso mientras se listaba la carpeta
+                    }
+                }
+            }
+        }
+
+        boolean cambio = !encontrados.keySet().equals(cache.keySet());
+        cache.keySet().retainAll(encontrados.keySet());
+        for (Map.Entry<Path, BasicFileAttributes> e : encontrados.entrySet()) {
+            Cached cached = cache.get(e.getKey());
+            if (cached == null || !cached.matches(e.getValue())) {
+                cache.remove(e.getKey());
+                cambio = true;
+                LedgerSegment segment = LedgerSegment.open(e.getKey());
+                if (segment != null && segment.isSealed()) {
+                    cache.put(e.getKey(), new Cached(segment, e.getValue()));
+                }
+            }
+        }
+        if (!cambio) {
+            return sealed;
+        }
+
+        List<LedgerSegment> ordenados = new ArrayList<>(cache.size());
+        for (Cached cached : cache.values()) {
+            ordenados.add(cached.segment);
+        }
+        ordenados.sort(Comparator.comparingLong(LedgerSegment::getBaseClave)
+                .thenComparing(Comparator.comparingLong(LedgerSegment::getRecordCount).reversed()));
+
+        List<LedgerSegment> vigentes = new ArrayList<>();
+        List<LedgerSegment> cubiertos = new ArrayList<>();
+        for (LedgerSegment segment : ordenados) {
+            LedgerSegment anterior = vigentes.isEmpty() ? null : vigentes.get(vigentes.size() - 1);
+            if (anterior != null && segment.lastClave() <= anterior.lastClave()) {
+                cubiertos.add(segment);
+            } else {
+                vigentes.add(segment);
+            }
+        }
+        sealed = vigentes;
+        covered = cubiertos;
+        return sealed;
+    }
+
+    /**
+     * Clave anterior a la primera que debe usar el archivo activo.
+     *
+     * @return última clave de los segmentos sellados, o 0 si no hay
+     * @throws IOException si no se pudieron leer los segmentos
+     */
+    synchronized long nextBaseClave() throws IOException {
+        List<LedgerSegment> lista = sealed();
+        return lista.isEmpty() ? 0L : lista.get(lista.size() - 1).lastClave();
+    }
+
+    /**
+     * Suma las victorias de un equipo en todos los segmentos sellados.
+     *
+     * @param nombreEquipo nombre del equipo
+     * @return victorias en segmentos sellados
+     * @throws IOException si no se pudieron leer los segmentos
+     */
+    synchronized int wins(String nombreEquipo) throws IOException {
+        int total = 0;
+        for (LedgerSegment segment : sealed()) {
+            SegmentSummary.Tally tally = find(segment, nombreEquipo);
+            total += tally != null ? tally.getWins() : 0;
+        }
+        return total;
+    }
+
+    /**
+     * Retorna el mejor puntaje de un equipo en los segmentos sellados.
+     *
+     * @param nombreEquipo nombre del equipo
+     * @return mejor puntaje, o {@link Integer#MIN_VALUE} si no aparece
+     * @throws IOException si no se pudieron leer los segmentos
+     */
+    synchronized int bestScore(String nombreEquipo) throws IOException {
+        int mejor = Integer.MIN_VALUE;
+        for (LedgerSegment segment : sealed()) {
+            SegmentSummary.Tally tally = find(segment, nombreEquipo);
+            if (tally != null) {
+                mejor = Math.max(mejor, tally.getBest());
+            }
+        }
+        return mejor;
+    }
+
+    private SegmentSummary.Tally find(LedgerSegment segment, String nombreEquipo) {
+        return segment.getSummary().team(segment.getFormat().teamKey(nombreEquipo));
+    }
+
+    /**
+     * Termina de sellar el archivo activo si quedó con su resumen escrito
+     * pero sin renombrar, por ejemplo tras un cierre inesperado.
+     *
+     * @param active ruta del archivo activo
+     * @return true si había un sellado pendiente
+     * @throws IOException si no se pudo renombrar
+     */
+    synchronized boolean completePendingSeal(Path active) throws IOException {
+        LedgerSegment segment = LedgerSegment.open(active);
+        if (segment == null || !segment.isSealed()) {
+            return false;
+        }
+        move(active, segmentPath(segment.firstClave()));
+        return true;
+    }
+
+    /**
+     * Sella el archivo activo: descarta un registro incompleto al final,
+     * escribe el resumen y lo renombra como segmento.
+     *
+     * @param active ruta del archivo activo
+     * @return segmento sellado, o null si el archivo no tenía registros
+     * @throws IOException si no se pudo sellar
+     */
+    synchronized LedgerSegment seal(Path active) throws IOException {
+        LedgerSegment segment = LedgerSegment.open(active);
+        if (segment == null || segment.getRecordCount() == 0) {
+            return null;
+        }
+        if (!segment.isSealed()) {
+            try (FileChannel channel = FileChannel.open(active, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE)) {
+                channel.truncate(segment.endOfRecords());
+                SegmentSummary summary = new SegmentSummary();
+                copyRecords(segment, channel, null, null, summary);
+                summary.writeFooter(channel);
+                channel.force(true);
+            }
+        }
+        Path destino = segmentPath(segment.firstClave());
+        move(active, destino);
+        sealed();
+        Cached cached = cache.get(destino);
+        return cached != null ? cached.segment : null;
+    }
+
+    /**
+     * Une segmentos sellados consecutivos hasta que cada grupo alcance
+     * el tamaño indicado, después de borrar los que quedaron cubiertos por
+     * una compactación interrumpida. Se llama con el archivo bloqueado.
+     *
+     * @param targetBytes tamaño buscado para cada segmento compactado
+     * @return cantidad de segmentos eliminados al unirse
+     * @throws IOException si no se pudo compactar
+     */
+    synchronized int compact(long targetBytes) throws IOException {
+        sealed();
+        for (LedgerSegment segment : covered) {
+            Files.deleteIfExists(segment.getPath());
+            cache.remove(segment.getPath());
+        }
+        covered = new ArrayList<>();
+
+        List<List<LedgerSegment>> grupos = new ArrayList<>();
+        List<LedgerSegment> grupo = new ArrayList<>();
+        long tamañoGrupo = 0;
+        for (LedgerSegment segment : sealed()) {
+            long tamaño = Files.size(segment.getPath());
+            if (!grupo.isEmpty() && tamañoGrupo + tamaño > targetBytes) {
+                grupos.add(grupo);
+                grupo = new ArrayList<>();
+                tamañoGrupo = 0;
+            }
+            grupo.add(segment);
+            tamañoGrupo += tamaño;
+        }
+        grupos.add(grupo);
+
+        int eliminados = 0;
+        for (List<LedgerSegment> g : grupos) {
+            if (g.size() > 1) {
+                merge(g);
+                eliminados += g.size() - 1;
+            }
+        }
+        sealed();
+        return eliminados;
+    }
+
+    private void merge(List<LedgerSegment> grupo) throws IOException {
+        LedgerSegment primero = grupo.get(0);
+        LedgerFormat format = primero.getFormat();
+        for (LedgerSegment segment : grupo) {
+            if (segment.getFormat() != format) {
+                format = LedgerFormat.DEFAULT;
+            }
+        }
+
+        Path destino = primero.getPath();
+        Path tmp = destino.resolveSibling(destino.getFileName() + ".tmp");
+        SegmentSummary summary = new SegmentSummary();
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            format.writeHeader(out, primero.getBaseClave());
+            for (LedgerSegment segment : grupo) {
+                try (FileChannel in = FileChannel.open(segment.getPath(), StandardOpenOption.READ)) {
+                    copyRecords(segment, in, out, format, summary);
+                }
+            }
+            summary.writeFooter(out);
+            out.force(true);
+        }
+
+        move(tmp, destino);
+        for (int i = 1; i < grupo.size(); i++) {
+            Files.deleteIfExists(grupo.get(i).getPath());
+        }
+        cache.remove(destino);
+    }
+
+    /**
+     * Recorre los registros de un segmento por bloques, agregándolos al
+     * resumen y, si hay canal de salida, copiándolos al final de él en el
+     * formato indicado.
+     */
+    private void copyRecords(LedgerSegment segment, FileChannel in, FileChannel out,
+                             LedgerFormat outFormat, SegmentSummary summary) throws IOException {
+        LedgerFormat format = segment.getFormat();
+        int size = format.recordSize();
+        ByteBuffer lectura = ByteBuffer.allocate(size * RECORDS_PER_BLOCK);
+        ByteBuffer escritura = outFormat != null && outFormat != format
+                ? ByteBuffer.allocate(outFormat.recordSize() * RECORDS_PER_BLOCK)
+                : null;
+        List<Player> players = new ArrayList<>(3);
+
+        long numero = 1;
+        while (numero <= segment.getRecordCount()) {
+            int bloque = (int) Math.min(RECORDS_PER_BLOCK, segment.getRecordCount() - numero + 1);
+            lectura.clear().limit(bloque * size);
+            long posicion = format.offsetOf(numero);
+            while (lectura.hasRemaining()) {
+                if (in.read(lectura, posicion + lectura.position()) < 0) {
+                    throw new IOException("Fin inesperado de " + segment.getPath());
+                }
+            }
+            lectura.flip();
+
+            ByteBuffer salida = lectura;
+            LedgerFormat salidaFormat = format;
+            if (escritura != null) {
+                escritura.clear();
+                for (int i = 0; i < bloque; i++) {
+                    int base = i * size;
+                    players.clear();
+                    for (int p = 0; p < 3; p++) {
+                        players.add(new Player(format.playerName(lectura, base, p), 0));
+                    }
+                    outFormat.encode(escritura, format.clave(lectura, base), format.timestamp(lectura, base),
+                            format.teamName(lectura, base), players, format.score(lectura, base));
+                }
+                escritura.flip();
+                salida = escritura;
+                salidaFormat = outFormat;
+            }
+
+            for (int i = 0; i < bloque; i++) {
+                summary.add(salidaFormat, salida, i * salidaFormat.recordSize());
+            }
+            if (out != null) {
+                long fin = out.size();
+                while (salida.hasRemaining()) {
+                    fin += out.write(salida, fin);
+                }
+            }
+            numero += bloque;
+        }
+    }
+
+    private Path segmentPath(long firstClave) {
+        return dir.resolve(String.format("%s%012d%s", PREFIX, firstClave, SUFFIX));
+    }
+
+    private static void move(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}